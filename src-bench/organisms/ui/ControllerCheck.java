@@ -0,0 +1,76 @@
+package organisms.ui;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Checks that {@link organisms.g4.Group4Controller}, which decides for the
+ * whole species in batches, plays the same games as
+ * {@link organisms.g4.Group4Player}, which has an object per organism. Both
+ * are run on the same seed under each of the move rules, and compared round
+ * for round.
+ * <p>
+ * Arguments, all optional: side of the square grid (40), rounds (1000),
+ * seed (77).
+ */
+public final class ControllerCheck {
+
+    private ControllerCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String side = args.length > 0 ? args[0] : "40";
+        String rounds = args.length > 1 ? args[1] : "1000";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 77;
+        System.out.println("Grid " + side + "x" + side + ", " + rounds +
+            " rounds, seed " + seed);
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        boolean agree = true;
+        try {
+            for (MoveRules rules : MoveRules.values()) {
+                String[] row = {"500", rounds, side, side, "1", "10", "100",
+                    "500", "80", "0.01", "0.02", "1", "controller",
+                    "seed=" + seed, "rules=" + rules.name().toLowerCase()};
+                int[] objects = play(row, seed, "organisms.g4.Group4Player");
+                int[] batched = play(row, seed,
+                    "organisms.g4.Group4Controller");
+                boolean same = Arrays.equals(objects, batched);
+                out.println(rules + " rules: controller " +
+                    (same ? "replays" : "DIFFERS from") +
+                    " per-organism player");
+                agree &= same;
+            }
+        } finally {
+            System.setOut(out);
+        }
+        System.out.println(agree ? "Results agree" : "Results DIFFER");
+        if (!agree) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays the row's game of {@code player} against the random player
+     *
+     * @return The hash of its grid after each round
+     */
+    private static int[] play(String[] row, long seed, String player)
+        throws Exception {
+        Class<?>[] classes = {Class.forName("organisms.g0.RandomPlayer"),
+            Class.forName(player)};
+        OrganismsGame game = new OrganismsGame(
+            OrganismsGame.getConfigFromCSVRow(row, classes), seed);
+        int[] hashes = new int[256];
+        int played = 0;
+        while (game.step()) {
+            if (played == hashes.length) {
+                hashes = Arrays.copyOf(hashes, 2 * played);
+            }
+            hashes[played++] = game.gridHash();
+        }
+        return Arrays.copyOf(hashes, played);
+    }
+}
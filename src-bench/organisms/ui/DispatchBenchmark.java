@@ -0,0 +1,79 @@
+package organisms.ui;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Times whole games with every species behind one shared decider against
+ * the same games with a decider class per species, and checks that they
+ * agree. The species are the {@code CLASS_LIST} of gamemodel.properties,
+ * one founder each; run it from the directory that holds that file.
+ * <p>
+ * Arguments, all optional: side of the square grid (200), rounds (1000),
+ * seed (1).
+ */
+public final class DispatchBenchmark {
+    private DispatchBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String side = args.length > 0 ? args[0] : "200";
+        String rounds = args.length > 1 ? args[1] : "1000";
+        String seed = args.length > 2 ? args[2] : "1";
+        Properties properties = Util.gatherProperties("gamemodel.properties");
+        String[] names = Util.split(",\t\n ",
+            properties.getProperty("CLASS_LIST").trim());
+        Class<?>[] classes = new Class<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            classes[i] = Class.forName(names[i]);
+        }
+        IFCConfiguration config = OrganismsGame.getConfigFromCSVRow(
+            new String[]{"500", rounds, side, side, "1", "10", "100", "500",
+                "80", "0.01", "0.02", "1", "dispatch", "seed=" + seed},
+            classes);
+        System.out.println("Grid " + side + "x" + side + ", " + rounds +
+            " rounds, " + classes.length + " species");
+
+        // Warm both up, then time them alternately. The shared decider and
+        // the species' copies are profiled apart, so neither run spoils the
+        // other's.
+        double[] best = new double[2];
+        TrialResult[] results = new TrialResult[2];
+        for (int repeat = 0; repeat < 5; repeat++) {
+            for (int mode = 0; mode < 2; mode++) {
+                config.setSpeciesDeciders(mode == 1);
+                results[mode] = play(config, Long.parseLong(seed));
+                best[mode] = Math.max(best[mode], results[mode].organismMoves *
+                    1e9 / results[mode].runNanos);
+            }
+        }
+        System.out.printf("Shared decider: %.0f organism moves/s%n", best[0]);
+        System.out.printf("Species deciders: %.0f organism moves/s%n",
+            best[1]);
+        System.out.printf("Speedup: %.2fx%n", best[1] / best[0]);
+        boolean agree = Arrays.equals(results[0].endCounts,
+            results[1].endCounts) && Arrays.equals(results[0].endEnergies,
+            results[1].endEnergies);
+        System.out.println(agree ? "Results agree" : "Results DIFFER");
+    }
+
+    /**
+     * @return The result of a game, with the time spent stepping it
+     */
+    private static TrialResult play(IFCConfiguration config, long seed) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            OrganismsGame game = new OrganismsGame(config, seed);
+            long start = System.nanoTime();
+            while (game.step()) {
+            }
+            game.finishGame(System.nanoTime() - start);
+            return game.result();
+        } finally {
+            System.setOut(out);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package organisms.ui;
+
+import java.util.Arrays;
+
+/**
+ * Times the food kernels on a synthetic grid and checks that they agree.
+ * Run it with {@code --add-modules jdk.incubator.vector} and the classes of
+ * {@code src-vector} on the class path to include the vector kernel.
+ * <p>
+ * Arguments, all optional: side of the square grid (1024), rounds (200),
+ * fraction of cells occupied (0.1).
+ */
+public final class FoodKernelBenchmark {
+    private static final double p = 0.01;
+    private static final double q = 0.02;
+    private static final int K = 80;
+    private static final int u = 100;
+    private static final int M = 500;
+    private static final int SPECIES = 4;
+
+    private FoodKernelBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        double density = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        FoodSampler sampler = new FoodSampler(p, q, K);
+        FoodKernel scalar = FoodKernel.create(FoodKernel.SCALAR, sampler, p,
+            q, K, u, M);
+        FoodKernel vector = FoodKernel.create(FoodKernel.VECTOR, sampler, p,
+            q, K, u, M);
+        System.out.println("Grid " + side + "x" + side + ", " + rounds +
+            " rounds, " + density + " occupied; vector kernel is " +
+            vector.getClass().getSimpleName());
+
+        // Warm both up, then time them alternately
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE};
+        long[] sums = new long[2];
+        FoodKernel[] kernels = {scalar, vector};
+        for (int repeat = 0; repeat < 5; repeat++) {
+            for (int k = 0; k < kernels.length; k++) {
+                Grid grid = new Grid(side, density);
+                best[k] = Math.min(best[k], grid.run(kernels[k], rounds));
+                sums[k] = grid.checksum();
+            }
+        }
+        double cells = (double) side * side * rounds;
+        System.out.printf("Scalar: %.3f ns/cell%n", best[0] / cells);
+        System.out.printf("Vector: %.3f ns/cell%n", best[1] / cells);
+        System.out.printf("Speedup: %.2fx%n", (double) best[0] / best[1]);
+        System.out.println(sums[0] == sums[1] ? "Results agree" :
+            "Results DIFFER: " + sums[0] + " vs " + sums[1]);
+    }
+
+    /**
+     * A grid of food and organisms that never move, fed round after round
+     */
+    private static final class Grid {
+        final int side;
+        final int[] food;
+        final int[] energy;
+        final int[] playerType;
+        final BitPlane hasFood;
+        final int[] fed = new int[SPECIES];
+        final int[] scratch = new int[FoodKernel.SCRATCH];
+
+        Grid(int side, double density) {
+            this.side = side;
+            food = new int[side * side];
+            energy = new int[side * side];
+            playerType = new int[side * side];
+            hasFood = new BitPlane(side * side);
+            Arrays.fill(playerType, OrganismsGame.EMPTY);
+            GameRandom random = new GameRandom(1);
+            for (int cell = 0; cell < food.length; cell++) {
+                if (random.nextDouble() < density) {
+                    playerType[cell] = random.nextInt(SPECIES);
+                    energy[cell] = random.nextInt(M);
+                }
+                food[cell] = random.nextInt(4) == 0 ? random.nextInt(K) : 0;
+                if (food[cell] > 0) {
+                    hasFood.set(cell);
+                }
+            }
+        }
+
+        /**
+         * @return The time spent in the kernel, in nanoseconds
+         */
+        long run(FoodKernel kernel, int rounds) {
+            long nanos = 0;
+            for (int round = 0; round < rounds; round++) {
+                long key = FoodKernel.key(1, round);
+                long start = System.nanoTime();
+                for (int row = 0; row < side; row++) {
+                    kernel.evolve(food, energy, 0, playerType, hasFood,
+                        row * side, (row + 1) * side, key, fed, scratch);
+                }
+                nanos += System.nanoTime() - start;
+                // Keep the occupants hungry
+                for (int cell = 0; cell < energy.length; cell++) {
+                    energy[cell] = Math.max(0, energy[cell] - 1);
+                }
+            }
+            return nanos;
+        }
+
+        long checksum() {
+            long sum = hasFood.count();
+            for (int cell = 0; cell < food.length; cell++) {
+                sum = sum * 31 + food[cell] + 7L * energy[cell];
+            }
+            return sum + Arrays.hashCode(fed);
+        }
+    }
+}
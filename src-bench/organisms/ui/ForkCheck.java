@@ -0,0 +1,93 @@
+package organisms.ui;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Checks that forking a game changes nothing for the game forked, and that
+ * a fork on the same seed replays it, with species whose organisms move at
+ * random from generators of their own. The forked game and its fork are run
+ * in both orders, each against a game that was never forked; a fork on
+ * another seed shares the organisms alongside.
+ * <p>
+ * Arguments, all optional: side of the square grid (40), rounds (1000),
+ * seed (77), round to fork at (200).
+ */
+public final class ForkCheck {
+    private static final String[] SPECIES = {
+        "organisms.g0.RandomPlayer", "organisms.g4.Group4Player"};
+
+    private ForkCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String side = args.length > 0 ? args[0] : "40";
+        String rounds = args.length > 1 ? args[1] : "1000";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 77;
+        int at = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        Class<?>[] classes = new Class<?>[SPECIES.length];
+        for (int i = 0; i < SPECIES.length; i++) {
+            classes[i] = Class.forName(SPECIES[i]);
+        }
+        IFCConfiguration config = OrganismsGame.getConfigFromCSVRow(
+            new String[]{"500", rounds, side, side, "1", "10", "100", "500",
+                "80", "0.01", "0.02", "1", "fork", "seed=" + seed},
+            classes);
+        System.out.println("Grid " + side + "x" + side + ", " + rounds +
+            " rounds, seed " + seed + ", fork at round " + at);
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        boolean agree;
+        try {
+            OrganismsGame game = new OrganismsGame(config, seed);
+            game.runUntil(at);
+            int[] expected = play(game);
+
+            agree = true;
+            for (int order = 0; order < 2; order++) {
+                OrganismsGame parent = new OrganismsGame(config, seed);
+                parent.runUntil(at);
+                OrganismsGame fork = parent.fork();
+                OrganismsGame other = parent.fork(seed + 1);
+                boolean[] replays = new boolean[2];
+                OrganismsGame[] games = order == 0 ?
+                    new OrganismsGame[]{parent, fork} :
+                    new OrganismsGame[]{fork, parent};
+                for (int g = 0; g < games.length; g++) {
+                    replays[g] = Arrays.equals(expected, play(games[g]));
+                }
+                play(other);
+                out.println((order == 0 ? "Forked game first: " :
+                    "Fork first: ") + "forked game " +
+                    (replays[order] ? "replays" : "DIFFERS") + ", fork " +
+                    (replays[1 - order] ? "replays" : "DIFFERS"));
+                agree &= replays[0] && replays[1];
+            }
+        } finally {
+            System.setOut(out);
+        }
+        System.out.println(agree ? "Results agree" : "Results DIFFER");
+        if (!agree) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays the game to its end
+     *
+     * @return The hash of its grid after each round
+     */
+    private static int[] play(OrganismsGame game) {
+        int[] hashes = new int[256];
+        int played = 0;
+        while (game.step()) {
+            if (played == hashes.length) {
+                hashes = Arrays.copyOf(hashes, 2 * played);
+            }
+            hashes[played++] = game.gridHash();
+        }
+        return Arrays.copyOf(hashes, played);
+    }
+}
@@ -0,0 +1,156 @@
+package organisms.ui;
+
+import organisms.Move;
+import organisms.OrganismsPlayer;
+import organisms.Recyclable;
+import organisms.Stateless;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Checks that {@link organisms.g4.Group4Player}, which decides through
+ * {@link organisms.PackedPlayer#decide}, plays the same games as it did
+ * through {@link OrganismsPlayer#move}, kept here as
+ * {@link Group4MovePlayer}. Both are run on the same seed under each of the
+ * move rules, and compared round for round.
+ * <p>
+ * Arguments, all optional: side of the square grid (40), rounds (1000),
+ * seed (77).
+ */
+public final class PackedCheck {
+
+    private PackedCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String side = args.length > 0 ? args[0] : "40";
+        String rounds = args.length > 1 ? args[1] : "1000";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 77;
+        System.out.println("Grid " + side + "x" + side + ", " + rounds +
+            " rounds, seed " + seed);
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        boolean agree = true;
+        try {
+            for (MoveRules rules : MoveRules.values()) {
+                String[] row = {"500", rounds, side, side, "1", "10", "100",
+                    "500", "80", "0.01", "0.02", "1", "packed",
+                    "seed=" + seed, "rules=" + rules.name().toLowerCase()};
+                int[] packed = play(row, seed, Class.forName(
+                    "organisms.g4.Group4Player"));
+                int[] moved = play(row, seed, Group4MovePlayer.class);
+                boolean same = Arrays.equals(packed, moved);
+                out.println(rules + " rules: packed player " +
+                    (same ? "replays" : "DIFFERS from") + " move() form");
+                agree &= same;
+            }
+        } finally {
+            System.setOut(out);
+        }
+        System.out.println(agree ? "Results agree" : "Results DIFFER");
+        if (!agree) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays the row's game of {@code player} against the random player
+     *
+     * @return The hash of its grid after each round
+     */
+    private static int[] play(String[] row, long seed, Class<?> player)
+        throws Exception {
+        Class<?>[] classes = {Class.forName("organisms.g0.RandomPlayer"),
+            player};
+        OrganismsGame game = new OrganismsGame(
+            OrganismsGame.getConfigFromCSVRow(row, classes), seed);
+        int[] hashes = new int[256];
+        int played = 0;
+        while (game.step()) {
+            if (played == hashes.length) {
+                hashes = Arrays.copyOf(hashes, 2 * played);
+            }
+            hashes[played++] = game.gridHash();
+        }
+        return Arrays.copyOf(hashes, played);
+    }
+
+    /**
+     * Group4Player as it was written against {@link OrganismsPlayer#move}
+     */
+    @Stateless
+    public static final class Group4MovePlayer
+        implements OrganismsPlayer, Recyclable {
+        private OrganismsGame game;
+        private int dna;
+        private PlayerRandom random;
+
+        @Override
+        public void register(OrganismsGame game, int dna) throws Exception {
+            this.game = game;
+            this.dna = dna;
+            this.random = game.random();
+        }
+
+        @Override
+        public void reset() {
+            this.game = null;
+            this.dna = 0;
+            this.random = null;
+        }
+
+        @Override
+        public OrganismsPlayer copy(OrganismsGame game) {
+            Group4MovePlayer copy = new Group4MovePlayer();
+            copy.game = game;
+            copy.dna = this.dna;
+            copy.random = this.random.copy();
+            return copy;
+        }
+
+        @Override
+        public String name() {
+            return "Group4Player";
+        }
+
+        @Override
+        public Color color() {
+            return new Color(255, 200, 124, 255);
+        }
+
+        @Override
+        public Move move(int foodHere, int energyLeft, boolean foodN,
+                         boolean foodE, boolean foodS, boolean foodW,
+                         int neighborN, int neighborE, int neighborS,
+                         int neighborW) {
+            if (foodHere > 0 && energyLeft < game.M() - game.u()) {
+                return Move.movement(Action.STAY_PUT);
+            }
+            if (energyLeft > game.v() * 10) {
+                if (foodN && neighborN == -1) {
+                    return Move.reproduce(Action.NORTH, random.nextInt(256));
+                } else if (foodE && neighborE == -1) {
+                    return Move.reproduce(Action.EAST, random.nextInt(256));
+                } else if (foodS && neighborS == -1) {
+                    return Move.reproduce(Action.SOUTH, random.nextInt(256));
+                } else if (foodW && neighborW == -1) {
+                    return Move.reproduce(Action.WEST, random.nextInt(256));
+                }
+            }
+            if (foodN && neighborN == -1) return Move.movement(Action.NORTH);
+            if (foodE && neighborE == -1) return Move.movement(Action.EAST);
+            if (foodS && neighborS == -1) return Move.movement(Action.SOUTH);
+            if (foodW && neighborW == -1) return Move.movement(Action.WEST);
+            return Move.movement(Action.STAY_PUT);
+        }
+
+        @Override
+        public int externalState() {
+            return 1;
+        }
+    }
+}
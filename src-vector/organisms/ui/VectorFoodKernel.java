@@ -0,0 +1,102 @@
+package organisms.ui;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link FoodKernel} in SIMD lanes, with the incubating Vector API. Lanes
+ * hash their cells' draws, then masks pick the lanes that feed, spawn or
+ * might grow, and the food, energy and {@code hasFood} bits are written
+ * back a vector at a time. Only lanes whose food grows, a fraction q per
+ * unit, fall back to the scalar inversion. Compile and run with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+final class VectorFoodKernel extends FoodKernel {
+    private static final VectorSpecies<Integer> INTS =
+        IntVector.SPECIES_PREFERRED;
+    private static final int LANES = INTS.length();
+    private static final IntVector LANE = IntVector.zero(INTS)
+        .addIndex(1);
+    private static final IntVector BIT = IntVector.broadcast(INTS, 1)
+        .lanewise(VectorOperators.LSHL, LANE);
+
+    VectorFoodKernel(double p, double q, int K, int u, int M,
+                     double[][] tables) {
+        super(p, q, K, u, M, tables);
+    }
+
+    @Override
+    int evolve(int[] food, int[] energy, int base, int[] playerType,
+               BitPlane hasFood, int from, int to, long key, int[] fed,
+               int[] scratch) {
+        int high = (int) (key >>> 32);
+        int low = (int) key;
+        int change = 0;
+        int cell = from;
+        for (; cell + LANES <= to; cell += LANES) {
+            // Draws: FoodKernel.draw(key, cell) in every lane
+            IntVector h = LANE.add(cell).lanewise(VectorOperators.XOR, high)
+                .mul(GOLDEN).add(low);
+            h = h.lanewise(VectorOperators.XOR,
+                h.lanewise(VectorOperators.LSHR, 16)).mul(MIX_1);
+            h = h.lanewise(VectorOperators.XOR,
+                h.lanewise(VectorOperators.LSHR, 13)).mul(MIX_2);
+            IntVector r = h.lanewise(VectorOperators.XOR,
+                h.lanewise(VectorOperators.LSHR, 16))
+                .lanewise(VectorOperators.LSHR, 2);
+
+            IntVector f = IntVector.fromArray(INTS, food, base + cell);
+            VectorMask<Integer> occupied = IntVector.fromArray(INTS,
+                playerType, cell).compare(VectorOperators.GE, 0);
+            VectorMask<Integer> stocked = f.compare(VectorOperators.GT, 0);
+            VectorMask<Integer> spawns = occupied.or(stocked).not()
+                .and(r.compare(VectorOperators.LT, spawnBelow));
+            VectorMask<Integer> growable = stocked.andNot(occupied)
+                .and(f.compare(VectorOperators.LT, K));
+
+            IntVector after = f.add(1, spawns);
+            VectorMask<Integer> hungry = occupied.and(stocked);
+            if (hungry.anyTrue()) {
+                IntVector e = IntVector.fromArray(INTS, energy, base + cell);
+                VectorMask<Integer> eats = hungry.and(
+                    e.compare(VectorOperators.LE, M - u));
+                e.add(u, eats).intoArray(energy, base + cell);
+                after = after.sub(1, eats);
+                for (int bits = bits(eats); bits != 0; bits &= bits - 1) {
+                    fed[playerType[cell + Integer.numberOfTrailingZeros(bits)]]
+                        += u;
+                }
+            }
+            after.intoArray(food, base + cell);
+            change += after.sub(f).reduceLanes(VectorOperators.ADD);
+            hasFood.setBits(cell, LANES,
+                bits(after.compare(VectorOperators.GT, 0)));
+            // Most of these keep their food; the table says which do not
+            int bits = bits(growable);
+            if (bits != 0) {
+                r.intoArray(scratch, 0);
+                for (; bits != 0; bits &= bits - 1) {
+                    int lane = Integer.numberOfTrailingZeros(bits);
+                    int n = food[base + cell + lane];
+                    if (scratch[lane] >= stayBelow[n]) {
+                        food[base + cell + lane] = grow(n, scratch[lane]);
+                        change += food[base + cell + lane] - n;
+                    }
+                }
+            }
+        }
+        return change + super.evolve(food, energy, base, playerType, hasFood,
+            cell, to, key, fed, scratch);
+    }
+
+    /**
+     * @return The mask's lanes as bits, the first lane lowest. The Vector
+     *     API of JDK 17 has no intrinsic for {@code VectorMask.toLong}.
+     */
+    private static int bits(VectorMask<Integer> mask) {
+        return IntVector.zero(INTS).blend(BIT, mask)
+            .reduceLanes(VectorOperators.OR);
+    }
+}
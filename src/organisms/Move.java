@@ -15,30 +15,53 @@ package organisms;
 
 import java.io.Serializable;
 
-public class    Move implements Constants, Serializable {
-    Action action;
-    Action childPosition;
-    int childKey;
+public final class Move implements Constants, Serializable {
+    // Shared moves, so that the common case allocates nothing
+    private static final int MIN_CACHED_KEY = -128;
+    private static final int MAX_CACHED_KEY = 127;
+    private static final Move[] MOVEMENTS =
+        new Move[Action.REPRODUCE.intValue()];
+    private static final Move[][] REPRODUCTIONS =
+        new Move[Action.REPRODUCE.intValue()][];
+
+    static {
+        for (int a = 0; a < MOVEMENTS.length; a++) {
+            MOVEMENTS[a] = new Move(Action.fromInt(a));
+        }
+        for (int a = Action.WEST.intValue(); a < REPRODUCTIONS.length; a++) {
+            REPRODUCTIONS[a] = new Move[MAX_CACHED_KEY - MIN_CACHED_KEY + 1];
+            for (int key = MIN_CACHED_KEY; key <= MAX_CACHED_KEY; key++) {
+                REPRODUCTIONS[a][key - MIN_CACHED_KEY] =
+                    new Move(Action.fromInt(a), key);
+            }
+        }
+    }
+
+    private final Action action;
+    private final Action childPosition;
+    private final int childKey;
 
     /**
-     * Move the organism in the given direction.
+     * Move the organism in the given direction. Moves are immutable, and every
+     * call with the same action returns the same instance.
      *
      * @param action The action taken by the organism
      * @return A {@link Move} object containing the relevant movement direction
-     * @throws IllegalArgumentException if {@link Action#REPRODUCE} is
+     * @throws IllegalArgumentException if {@link Action#REPRODUCE} or null is
      *     given, since this is the wrong method for that
      */
     public static Move movement(Action action) {
-        if (action == Action.REPRODUCE) {
+        if (action == null || action == Action.REPRODUCE) {
             throw new IllegalArgumentException("Single-argument Move " +
                 "constructor not valid for reproduction");
         }
-        return new Move(action);
+        return MOVEMENTS[action.intValue()];
     }
 
     /**
      * Reproduce by splitting off a child in the given direction, passing along
-     * one integer of information in the process
+     * one integer of information in the process. Keys from -128 to 127 return
+     * a shared instance; others allocate a new {@link Move}.
      *
      * @param childPosition The direction in which the child should be
      *     created
@@ -48,11 +71,15 @@ public class    Move implements Constants, Serializable {
      *     N/S/E/W) is given for {@param childPosition}
      */
     public static Move reproduce(Action childPosition, int childKey) {
-        if (childPosition == Action.STAY_PUT ||
+        if (childPosition == null || childPosition == Action.STAY_PUT ||
             childPosition == Action.REPRODUCE) {
             throw new IllegalArgumentException("Child position must be " +
                 "one of the four cardinal directions enumerated in Action.");
         }
+        if (childKey >= MIN_CACHED_KEY && childKey <= MAX_CACHED_KEY) {
+            return REPRODUCTIONS[childPosition.intValue()]
+                [childKey - MIN_CACHED_KEY];
+        }
         return new Move(childPosition, childKey);
     }
 
@@ -62,15 +89,11 @@ public class    Move implements Constants, Serializable {
      * instantiations of a movement {@link Move}.
      *
      * @param action The action to be attempted by the organism
-     * @throws IllegalArgumentException if a non-direction {@link Action} is
-     *     given, since this is the wrong constructor for that
      */
     private Move(Action action) {
-        if (action == Action.REPRODUCE) {
-            throw new IllegalArgumentException("Single-argument Move " +
-                "constructor not valid for reproduction");
-        }
         this.action = action;
+        this.childPosition = null;
+        this.childKey = 0;
     }
 
     /**
@@ -94,10 +117,6 @@ public class    Move implements Constants, Serializable {
         return this.action;
     }
 
-    public void setAction(Action t) {
-        action = t;
-    }
-
     public Action getChildPosition() {
         return this.childPosition;
     }
@@ -106,8 +125,28 @@ public class    Move implements Constants, Serializable {
         return childKey;
     }
 
-    public void setChildKey(int k) {
-        childKey = k;
+    public boolean equals(Object o) {
+        if (!(o instanceof Move)) {
+            return false;
+        }
+        Move other = (Move) o;
+        return action == other.action &&
+            childPosition == other.childPosition &&
+            childKey == other.childKey;
+    }
+
+    public int hashCode() {
+        return (action.hashCode() * 31 +
+            (childPosition == null ? 0 : childPosition.hashCode())) * 31 +
+            childKey;
+    }
+
+    /**
+     * Keeps deserialized moves shared like the ones from the factories
+     */
+    private Object readResolve() {
+        return action == Action.REPRODUCE ?
+            reproduce(childPosition, childKey) : movement(action);
     }
 
     public String toString() {
@@ -82,5 +82,22 @@ public interface OrganismsPlayer extends Constants, Serializable {
      * @throws Exception if something goes wrong
      */
     int externalState() throws Exception;
+
+    /**
+     * Copies this organism into a fork of the game (see
+     * {@link OrganismsGame#fork}). The copy must act exactly as this organism
+     * would from here on, and share no mutable state with it; it is not
+     * registered. A generator from {@link OrganismsGame#random} is carried
+     * over with {@link organisms.ui.PlayerRandom#copy}. Species that do not
+     * override this cannot be forked.
+     *
+     * @param game The fork that the copy will live in
+     * @return The copy
+     * @throws Exception if something goes wrong; the fork then has no object
+     *     for the organism, and it stays put until it dies
+     */
+    default OrganismsPlayer copy(OrganismsGame game) throws Exception {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
 }
 
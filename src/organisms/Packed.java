@@ -0,0 +1,192 @@
+package organisms;
+
+import organisms.Constants.Action;
+
+/**
+ * Encodes what an organism sees and what it decides as primitives, for
+ * {@link PackedPlayer}s.
+ * <p>
+ * An observation is a {@code long}:
+ * <pre>
+ *   bits  0-9   food on the organism's cell, capped at 1023
+ *   bits 10-23  the organism's energy, capped at 16383
+ *   bits 24-27  food to the north, east, south and west, one bit each
+ *   bits 28-63  external state + 1 of the neighbour to the north, east,
+ *               south and west, nine bits each (0 if there is none)
+ * </pre>
+ * A decision is a {@code long}:
+ * <pre>
+ *   bits  0-31  the key passed to the child
+ *   bits 32-34  the {@link Action#intValue()} of the action
+ *   bits 35-37  the {@link Action#intValue()} of the child's position
+ * </pre>
+ * Zero is the decision to stay put. Decisions with an unknown action are
+ * treated as staying put, as are reproductions without a valid direction.
+ */
+public final class Packed {
+    public static final long STAY_PUT = 0L;
+
+    private static final int FOOD_BITS = 10;
+    private static final int ENERGY_SHIFT = 10;
+    private static final int ENERGY_BITS = 14;
+    private static final int SENSE_SHIFT = 24;
+    private static final int NEIGHBOR_SHIFT = 28;
+    private static final int NEIGHBOR_BITS = 9;
+    private static final int ACTION_SHIFT = 32;
+    private static final int POSITION_SHIFT = 35;
+
+    private static final int MAX_FOOD = (1 << FOOD_BITS) - 1;
+    private static final int MAX_ENERGY = (1 << ENERGY_BITS) - 1;
+    private static final int NEIGHBOR_MASK = (1 << NEIGHBOR_BITS) - 1;
+    private static final Action[] ACTIONS = Action.values();
+
+    private Packed() {
+    }
+
+    /**
+     * Packs the arguments of {@link OrganismsPlayer#move} into an observation
+     */
+    public static long observation(int foodHere, int energyLeft,
+                                   boolean foodN, boolean foodE,
+                                   boolean foodS, boolean foodW,
+                                   int neighborN, int neighborE,
+                                   int neighborS, int neighborW) {
+        long food = Math.min(Math.max(foodHere, 0), MAX_FOOD);
+        long energy = Math.min(Math.max(energyLeft, 0), MAX_ENERGY);
+        long sense = (foodN ? 1 : 0) | (foodE ? 2 : 0) | (foodS ? 4 : 0) |
+            (foodW ? 8 : 0);
+        return food |
+            energy << ENERGY_SHIFT |
+            sense << SENSE_SHIFT |
+            neighborBits(neighborN, 0) |
+            neighborBits(neighborE, 1) |
+            neighborBits(neighborS, 2) |
+            neighborBits(neighborW, 3);
+    }
+
+    private static long neighborBits(int state, int direction) {
+        return (long) ((state + 1) & NEIGHBOR_MASK) <<
+            (NEIGHBOR_SHIFT + direction * NEIGHBOR_BITS);
+    }
+
+    public static int foodHere(long observation) {
+        return (int) observation & MAX_FOOD;
+    }
+
+    public static int energyLeft(long observation) {
+        return (int) (observation >>> ENERGY_SHIFT) & MAX_ENERGY;
+    }
+
+    public static boolean foodN(long observation) {
+        return (observation & 1L << SENSE_SHIFT) != 0;
+    }
+
+    public static boolean foodE(long observation) {
+        return (observation & 2L << SENSE_SHIFT) != 0;
+    }
+
+    public static boolean foodS(long observation) {
+        return (observation & 4L << SENSE_SHIFT) != 0;
+    }
+
+    public static boolean foodW(long observation) {
+        return (observation & 8L << SENSE_SHIFT) != 0;
+    }
+
+    /**
+     * @return The external state of the neighbour to the north, or -1 if
+     *     there is none
+     */
+    public static int neighborN(long observation) {
+        return neighbor(observation, 0);
+    }
+
+    public static int neighborE(long observation) {
+        return neighbor(observation, 1);
+    }
+
+    public static int neighborS(long observation) {
+        return neighbor(observation, 2);
+    }
+
+    public static int neighborW(long observation) {
+        return neighbor(observation, 3);
+    }
+
+    private static int neighbor(long observation, int direction) {
+        return ((int) (observation >>> (NEIGHBOR_SHIFT +
+            direction * NEIGHBOR_BITS)) & NEIGHBOR_MASK) - 1;
+    }
+
+    /**
+     * @param action Any action other than {@link Action#REPRODUCE}
+     * @return The decision to take that action
+     */
+    public static long movement(Action action) {
+        return (long) action.intValue() << ACTION_SHIFT;
+    }
+
+    /**
+     * @param childPosition The direction in which the child should be
+     *     created
+     * @param childKey The integer to be passed on to the child
+     * @return The decision to reproduce
+     */
+    public static long reproduce(Action childPosition, int childKey) {
+        return (long) Action.REPRODUCE.intValue() << ACTION_SHIFT |
+            (long) childPosition.intValue() << POSITION_SHIFT |
+            (childKey & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return The decided action, or {@link Action#STAY_PUT} if the decision
+     *     holds no valid action
+     */
+    public static Action action(long decision) {
+        int code = (int) (decision >>> ACTION_SHIFT) & 7;
+        return code < ACTIONS.length ? ACTIONS[code] : Action.STAY_PUT;
+    }
+
+    /**
+     * @return The child's position, or {@link Action#STAY_PUT} if the decision
+     *     holds no valid position
+     */
+    public static Action childPosition(long decision) {
+        int code = (int) (decision >>> POSITION_SHIFT) & 7;
+        return code < ACTIONS.length ? ACTIONS[code] : Action.STAY_PUT;
+    }
+
+    public static int childKey(long decision) {
+        return (int) decision;
+    }
+
+    /**
+     * @param move A move, or null for staying put
+     * @return The same move as a decision
+     */
+    public static long decision(Move move) {
+        if (move == null) {
+            return STAY_PUT;
+        }
+        if (move.getAction() == Action.REPRODUCE) {
+            return reproduce(move.getChildPosition(), move.getChildKey());
+        }
+        return movement(move.getAction());
+    }
+
+    /**
+     * @return The decision as a {@link Move}. Decisions that are not valid
+     *     moves become {@link Action#STAY_PUT}.
+     */
+    public static Move toMove(long decision) {
+        Action action = action(decision);
+        if (action != Action.REPRODUCE) {
+            return Move.movement(action);
+        }
+        Action position = childPosition(decision);
+        if (position == Action.STAY_PUT || position == Action.REPRODUCE) {
+            return Move.movement(Action.STAY_PUT);
+        }
+        return Move.reproduce(position, childKey(decision));
+    }
+}
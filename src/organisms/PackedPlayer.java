@@ -0,0 +1,35 @@
+package organisms;
+
+/**
+ * A player that decides from a packed observation, without any allocation on
+ * either side of the call. The game prefers {@link #decide} over
+ * {@link #move} for players that implement this interface; see
+ * {@link Packed} for the encodings.
+ */
+public interface PackedPlayer extends OrganismsPlayer {
+
+    /**
+     * Calculates what this organism will do at the current time step
+     *
+     * @param observation What the organism sees, as packed by {@link
+     *     Packed#observation}
+     * @return The organism's decision, as packed by {@link Packed#movement}
+     *     or {@link Packed#reproduce}
+     * @throws Exception if something goes wrong
+     */
+    long decide(long observation) throws Exception;
+
+    /**
+     * Answers through {@link #decide}, so that packed players can still be
+     * driven as plain {@link OrganismsPlayer}s
+     */
+    @Override
+    default Move move(int foodHere, int energyLeft,
+                      boolean foodN, boolean foodE, boolean foodS,
+                      boolean foodW, int neighborN, int neighborE,
+                      int neighborS, int neighborW) throws Exception {
+        return Packed.toMove(decide(Packed.observation(foodHere, energyLeft,
+            foodN, foodE, foodS, foodW, neighborN, neighborE, neighborS,
+            neighborW)));
+    }
+}
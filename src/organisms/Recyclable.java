@@ -0,0 +1,22 @@
+package organisms;
+
+/**
+ * A player whose objects may be reused for new organisms once theirs has
+ * died. The game keeps the dead organisms of such a species and hands them
+ * back out for births instead of constructing new ones; a reused organism
+ * is reset and then registered again exactly like a new one.
+ * <p>
+ * A player that keeps references to its organisms after they die, for
+ * example in static collections, must not implement this interface.
+ */
+public interface Recyclable extends OrganismsPlayer {
+
+    /**
+     * Clears all per-organism state, leaving the object as if it had just
+     * been constructed
+     *
+     * @throws Exception if something goes wrong; the object is then
+     *     discarded and a new one constructed
+     */
+    void reset() throws Exception;
+}
@@ -0,0 +1,93 @@
+package organisms;
+
+import organisms.ui.OrganismsGame;
+
+import java.awt.Color;
+import java.io.Serializable;
+
+/**
+ * Controls every organism of a species at once, as an alternative to one
+ * {@link OrganismsPlayer} instance per organism. The game creates a single
+ * controller per species per game and refers to each of its organisms by a
+ * slot: a small integer that stays the same for the organism's whole life and
+ * is reused after it dies. Per-organism memory can therefore live in arrays
+ * indexed by slot.
+ * <p>
+ * Organisms still move one at a time in row-major order. The game hands
+ * {@link #decide} a batch of organisms only when none of them is within two
+ * cells of another, so no decision in the batch can change what another one
+ * sees, and the outcome is the same as deciding them one by one. Under
+ * simultaneous rules every organism decides from the same snapshot of the
+ * grid, so a batch may then hold any of the species' organisms.
+ */
+public interface SpeciesController extends Constants, Serializable {
+
+    /**
+     * Called once, before any organism of the species is born
+     *
+     * @param game The {@link OrganismsGame} representing the current game
+     * @throws Exception if something goes wrong
+     */
+    void register(OrganismsGame game) throws Exception;
+
+    /**
+     * @return The species name in string form, which ideally starts with your
+     *     group number
+     */
+    String name();
+
+    /**
+     * @return The color corresponding to this species
+     */
+    Color color();
+
+    /**
+     * Called when an organism of the species is born
+     *
+     * @param slot The new organism's slot
+     * @param parent The parent's slot, or -1 for the founder
+     * @param dna The integer passed from the parent, or -1 for the founder
+     * @return The new organism's external state
+     * @throws Exception if something goes wrong
+     */
+    int born(int slot, int parent, int dna) throws Exception;
+
+    /**
+     * Called when an organism of the species dies. Its slot may be given to
+     * a newborn afterwards.
+     *
+     * @param slot The dead organism's slot
+     * @throws Exception if something goes wrong
+     */
+    void died(int slot) throws Exception;
+
+    /**
+     * Decides what a batch of organisms will do at the current time step
+     *
+     * @param count The number of organisms in the batch
+     * @param slots The organisms' slots
+     * @param observations What each organism sees, as packed by {@link
+     *     Packed#observation}
+     * @param decisions Filled in with each organism's decision, as packed by
+     *     {@link Packed#movement} or {@link Packed#reproduce}; entries left
+     *     alone mean staying put
+     * @param externalStates Each organism's external state, which may be
+     *     overwritten with a new one
+     * @throws Exception if something goes wrong
+     */
+    void decide(int count, int[] slots, long[] observations, long[] decisions,
+                int[] externalStates) throws Exception;
+
+    /**
+     * Copies this controller, with the memory of every living organism, into
+     * a fork of the game (see {@link OrganismsGame#fork}). Slots stay the
+     * same in the fork. Species that do not override this cannot be forked.
+     *
+     * @param game The fork that the copy will control the species in
+     * @return The copy, sharing no mutable state with this controller
+     * @throws Exception if something goes wrong; the fork then fails
+     */
+    default SpeciesController copy(OrganismsGame game) throws Exception {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+}
@@ -0,0 +1,27 @@
+package organisms;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a player whose {@link OrganismsPlayer#move} (or
+ * {@link PackedPlayer#decide}) is a pure function of what the organism sees
+ * and the game's constants: any two organisms of the species that see the
+ * same thing decide the same, whatever they saw before. The game may then
+ * answer an observation it has seen before from a cache of the species'
+ * decisions, without calling the player.
+ * <p>
+ * The key of a child may be random, so decisions to reproduce are never
+ * cached; the player is asked again each time. Every other call, such as
+ * {@link OrganismsPlayer#externalState}, is made as usual. Now and then the
+ * game asks the player anyway, and stops caching for the species if the
+ * answer differs from the cached one.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Stateless {
+}
@@ -2,21 +2,21 @@ package organisms.g0;
 
 import organisms.Move;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 import organisms.OrganismsPlayer;
 
 import java.awt.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class RandomPlayer implements OrganismsPlayer {
     private OrganismsGame game;
     private int dna;
-    private ThreadLocalRandom random;
+    private PlayerRandom random;
 
     @Override
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game = game;
         this.dna = dna;
-        this.random = ThreadLocalRandom.current();
+        this.random = game.random();
     }
 
     @Override
@@ -54,4 +54,13 @@ public class RandomPlayer implements OrganismsPlayer {
     public int externalState() {
         return 0;
     }
+
+    @Override
+    public OrganismsPlayer copy(OrganismsGame game) {
+        RandomPlayer copy = new RandomPlayer();
+        copy.game = game;
+        copy.dna = this.dna;
+        copy.random = this.random.copy();
+        return copy;
+    }
 }
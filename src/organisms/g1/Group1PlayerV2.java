@@ -2,6 +2,7 @@ package organisms.g1;
 
 import organisms.Move;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 import organisms.OrganismsPlayer;
 
 import java.awt.*;
@@ -9,6 +10,7 @@ import java.awt.*;
 public class Group1PlayerV2 implements OrganismsPlayer {
     private OrganismsGame game;
     private int dna;
+    private PlayerRandom random;
     private static final int THRESHOLD_ENERGY_TO_REPRODUCE = 400;
     private static final int LOW_ENERGY_THRESHOLD = 200;
 
@@ -26,6 +28,7 @@ public class Group1PlayerV2 implements OrganismsPlayer {
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game = game;
         this.dna = dna;
+        this.random = game.random();
     }
 
     @Override
@@ -89,7 +92,7 @@ public class Group1PlayerV2 implements OrganismsPlayer {
         // 如果没有发现食物，随机移动或保持不动
         foundFood = false;
         Action[] actions = new Action[]{Action.NORTH, Action.EAST, Action.SOUTH, Action.WEST, Action.STAY_PUT};
-        int actionIndex = (int) (Math.random()*(actions.length));
+        int actionIndex = random.nextInt(actions.length);
         Action actionChoice = actions[actionIndex];
 
         // 避免移动到被占据的格子
@@ -2,17 +2,17 @@ package organisms.g2;
 
 import organisms.Move;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 import organisms.OrganismsPlayer;
 
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class SamPlayer implements OrganismsPlayer {
     private OrganismsGame game;
     private int dna;
-    private ThreadLocalRandom random;
+    private PlayerRandom random;
     private Action lastMove;
     private int roundsSinceLastSplit;
 
@@ -20,7 +20,7 @@ public class SamPlayer implements OrganismsPlayer {
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game = game;
         this.dna = dna;
-        this.random = ThreadLocalRandom.current();
+        this.random = game.random();
         this.lastMove = null;
         this.roundsSinceLastSplit = 0;
     }
@@ -2,10 +2,10 @@ package organisms.g3;
 
 import organisms.Move;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 import organisms.OrganismsPlayer;
 
 import java.awt.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class g3player1awoiv implements OrganismsPlayer {
     private OrganismsGame game;
@@ -14,13 +14,13 @@ public class g3player1awoiv implements OrganismsPlayer {
     private int currentY = 0;
     private boolean movingRight = true;
     private boolean movingDown = true;
-    private ThreadLocalRandom random;
+    private PlayerRandom random;
 
     @Override
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game = game;
         this.dna = dna;
-        this.random = ThreadLocalRandom.current();
+        this.random = game.random();
     }
 
     @Override
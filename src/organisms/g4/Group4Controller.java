@@ -0,0 +1,71 @@
+package organisms.g4;
+
+import organisms.SpeciesController;
+import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * {@link Group4Player}'s strategy as a {@link SpeciesController}: the
+ * species decides in batches, with each organism's random source kept in an
+ * array by slot. An organism draws its source when it is born, where a
+ * Group4Player draws it when registered, so the two play the same games.
+ */
+public class Group4Controller implements SpeciesController {
+    private OrganismsGame game;
+    private PlayerRandom[] randoms = new PlayerRandom[64];
+
+    @Override
+    public void register(OrganismsGame game) throws Exception {
+        this.game = game;
+    }
+
+    @Override
+    public String name() {
+        return "Group4Controller";
+    }
+
+    @Override
+    public Color color() {
+        return new Color(255, 200, 124, 255);
+    }
+
+    @Override
+    public int born(int slot, int parent, int dna) {
+        if (slot >= randoms.length) {
+            randoms = Arrays.copyOf(randoms,
+                Math.max(slot + 1, 2 * randoms.length));
+        }
+        randoms[slot] = game.random();
+        return 1;
+    }
+
+    @Override
+    public void died(int slot) {
+        randoms[slot] = null;
+    }
+
+    @Override
+    public void decide(int count, int[] slots, long[] observations,
+                       long[] decisions, int[] externalStates) {
+        for (int i = 0; i < count; i++) {
+            decisions[i] = Group4Player.decide(game, randoms[slots[i]],
+                observations[i]);
+        }
+    }
+
+    @Override
+    public SpeciesController copy(OrganismsGame game) {
+        Group4Controller copy = new Group4Controller();
+        copy.game = game;
+        copy.randoms = new PlayerRandom[randoms.length];
+        for (int i = 0; i < randoms.length; i++) {
+            if (randoms[i] != null) {
+                copy.randoms[i] = randoms[i].copy();
+            }
+        }
+        return copy;
+    }
+}
@@ -1,22 +1,42 @@
 package organisms.g4;
 
-import organisms.Move;
 import organisms.OrganismsPlayer;
+import organisms.Packed;
+import organisms.PackedPlayer;
+import organisms.Recyclable;
+import organisms.Stateless;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 
 import java.awt.*;
-import java.util.concurrent.ThreadLocalRandom;
 
-public class Group4Player implements OrganismsPlayer {
+@Stateless
+public class Group4Player implements PackedPlayer, Recyclable {
     private OrganismsGame game;
     private int dna;
-    private ThreadLocalRandom random;
+    private PlayerRandom random;
 
     @Override
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game = game;
         this.dna = dna;
-        this.random = ThreadLocalRandom.current();
+        this.random = game.random();
+    }
+
+    @Override
+    public void reset() {
+        this.game = null;
+        this.dna = 0;
+        this.random = null;
+    }
+
+    @Override
+    public OrganismsPlayer copy(OrganismsGame game) {
+        Group4Player copy = new Group4Player();
+        copy.game = game;
+        copy.dna = this.dna;
+        copy.random = this.random.copy();
+        return copy;
     }
 
     @Override
@@ -30,39 +50,58 @@ public class Group4Player implements OrganismsPlayer {
     }
 
     @Override
-    public Move move(int foodHere, int energyLeft, boolean foodN, boolean foodE,
-                     boolean foodS, boolean foodW, int neighborN, int neighborE,
-                     int neighborS, int neighborW) {
+    public long decide(long observation) {
+        return decide(game, random, observation);
+    }
+
+    /**
+     * The species' strategy, shared with {@link Group4Controller}
+     *
+     * @param random The deciding organism's own random source
+     */
+    static long decide(OrganismsGame game, PlayerRandom random,
+                       long observation) {
+        int foodHere = Packed.foodHere(observation);
+        int energyLeft = Packed.energyLeft(observation);
+        boolean foodN = Packed.foodN(observation);
+        boolean foodE = Packed.foodE(observation);
+        boolean foodS = Packed.foodS(observation);
+        boolean foodW = Packed.foodW(observation);
+        boolean freeN = Packed.neighborN(observation) == -1;
+        boolean freeE = Packed.neighborE(observation) == -1;
+        boolean freeS = Packed.neighborS(observation) == -1;
+        boolean freeW = Packed.neighborW(observation) == -1;
+
         // Evaluate if staying put is beneficial (e.g., when there's food here)
         if (foodHere > 0 && energyLeft < game.M() - game.u()) {
-            return Move.movement(Action.STAY_PUT);
+            return Packed.STAY_PUT;
         }
 
         // Consider reproduction if the energy is sufficient
         if (energyLeft > game.v() * 10) { // ensure enough energy to reproduce and survive
-            if (foodN && neighborN == -1) { // check if north is free and has food
+            if (foodN && freeN) { // check if north is free and has food
                 int childKey = random.nextInt(256); // generate a random initial state for the child
-                return Move.reproduce(Action.NORTH, childKey);
-            }else if(foodE && neighborE == -1) { // check if east is free and has food
+                return Packed.reproduce(Action.NORTH, childKey);
+            }else if(foodE && freeE) { // check if east is free and has food
                 int childKey = random.nextInt(256); // generate a random initial state for the child
-                return Move.reproduce(Action.EAST, childKey);
-            }else if(foodS && neighborS == -1) { // check if south is free and has food
+                return Packed.reproduce(Action.EAST, childKey);
+            }else if(foodS && freeS) { // check if south is free and has food
                 int childKey = random.nextInt(256); // generate a random initial state for the child
-                return Move.reproduce(Action.SOUTH, childKey);
-            }else if(foodW && neighborW == -1) { // check if west is free and has food
+                return Packed.reproduce(Action.SOUTH, childKey);
+            }else if(foodW && freeW) { // check if west is free and has food
                 int childKey = random.nextInt(256); // generate a random initial state for the child
-                return Move.reproduce(Action.WEST, childKey);
+                return Packed.reproduce(Action.WEST, childKey);
             }
         }
 
         // Move towards food if adjacent and no neighbors are present
-        if (foodN && neighborN == -1) return Move.movement(Action.NORTH);
-        if (foodE && neighborE == -1) return Move.movement(Action.EAST);
-        if (foodS && neighborS == -1) return Move.movement(Action.SOUTH);
-        if (foodW && neighborW == -1) return Move.movement(Action.WEST);
+        if (foodN && freeN) return Packed.movement(Action.NORTH);
+        if (foodE && freeE) return Packed.movement(Action.EAST);
+        if (foodS && freeS) return Packed.movement(Action.SOUTH);
+        if (foodW && freeW) return Packed.movement(Action.WEST);
 
         // Default to staying put if no better option is found
-        return Move.movement(Action.STAY_PUT);
+        return Packed.STAY_PUT;
     }
 
     @Override
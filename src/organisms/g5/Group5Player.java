@@ -2,12 +2,12 @@ package organisms.g5;
 
 import organisms.Move;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 import organisms.OrganismsPlayer;
 
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Optional;
-import java.util.Random;
 
 public class Group5Player implements OrganismsPlayer {
     enum OCCUPANT {
@@ -17,6 +17,7 @@ public class Group5Player implements OrganismsPlayer {
     }
 
     private OrganismsGame game;
+    private PlayerRandom random;
 
     private final int REPRODUCTION_ENERGY = 490; // energy threshold to force reproduce
     private final int HIGH_ENERGY_THRESHOLD = 300;
@@ -35,6 +36,7 @@ public class Group5Player implements OrganismsPlayer {
     @Override
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game = game;
+        this.random = game.random();
         this.inheritState = dna;
     }
 
@@ -56,14 +58,14 @@ public class Group5Player implements OrganismsPlayer {
         if (foodS) { stepDirection.add(Move.movement(Action.SOUTH)); }
         if (foodW) { stepDirection.add(Move.movement(Action.WEST)); }
 
-        return stepDirection.get((int) (Math.random() * stepDirection.size()));
+        return stepDirection.get(random.nextInt(stepDirection.size()));
     }
 
     /*
     * When reproducing, set the DNA as the direction where the child will move for the next few steps
     * */
     private Move reproduceOnControlledDirection() {
-        int actionIndex = (int) (Math.random() * 4) + 1;
+        int actionIndex = random.nextInt(4) + 1;
         Action actionChoice = Action.fromInt(actionIndex);
 
         return Move.reproduce(actionChoice, actionIndex);
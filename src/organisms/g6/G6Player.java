@@ -2,15 +2,15 @@ package organisms.g6;
 
 import organisms.Move;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 import organisms.OrganismsPlayer;
 
 import java.awt.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class G6Player implements OrganismsPlayer {
     private OrganismsGame game;
     private int dna;
-    private ThreadLocalRandom random;
+    private PlayerRandom random;
 
     private int M ;
     private int v ;
@@ -20,7 +20,7 @@ public class G6Player implements OrganismsPlayer {
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game = game;
         this.dna = dna;
-        this.random = ThreadLocalRandom.current();
+        this.random = game.random();
         this.M = game.M();
         this.v = game.v();
         this.moves_since_food = 0;
@@ -3,11 +3,11 @@ package organisms.g7;
 import organisms.Move;
 import organisms.OrganismsPlayer;
 import organisms.ui.OrganismsGame;
+import organisms.ui.PlayerRandom;
 
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.concurrent.ThreadLocalRandom;
 public class Group7Player implements OrganismsPlayer {
 
     private OrganismsGame game;
@@ -24,13 +24,13 @@ public class Group7Player implements OrganismsPlayer {
 
     private int coolDown = 0;
 
-    private ThreadLocalRandom random;
+    private PlayerRandom random;
 
     @Override
     public void register(OrganismsGame game, int dna) throws Exception {
         this.game= game;
         this.dna = dna;
-        this.random = ThreadLocalRandom.current();
+        this.random = game.random();
     }
 
     @Override
@@ -0,0 +1,131 @@
+package organisms.ui;
+
+import java.util.Arrays;
+
+/**
+ * A set of grid cells, one bit per cell, in the same row-major order as the
+ * grid arrays of {@link OrganismsGame}. Walking the set bits with
+ * {@link #nextSetBit} therefore visits cells top-left to bottom-right, which
+ * is the order organisms move in.
+ */
+final class BitPlane {
+    private final long[] words;
+    private final int size;
+
+    BitPlane(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    BitPlane(BitPlane other) {
+        this.size = other.size;
+        this.words = other.words.clone();
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Counts the set bits, so that bands of the food phase can set and clear
+     * cells in parallel without sharing a counter
+     *
+     * @return The number of cells in the set
+     */
+    int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    boolean get(int cell) {
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    void set(int cell) {
+        words[cell >>> 6] |= 1L << cell;
+    }
+
+    void clear(int cell) {
+        words[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * Sets the {@code n} cells from {@code from} on to the low {@code n} bits
+     * of {@code bits}, the lowest bit for the first cell
+     *
+     * @param n Between 1 and 64
+     */
+    void setBits(int from, int n, long bits) {
+        long mask = n == 64 ? -1L : (1L << n) - 1;
+        bits &= mask;
+        int w = from >>> 6;
+        int shift = from & 63;
+        words[w] = words[w] & ~(mask << shift) | bits << shift;
+        if (shift + n > 64) {
+            words[w + 1] = words[w + 1] & ~(mask >>> (64 - shift)) |
+                bits >>> (64 - shift);
+        }
+    }
+
+    void move(int from, int to) {
+        clear(from);
+        set(to);
+    }
+
+    /**
+     * Adds the cells of {@code other}, a set over the same cells
+     */
+    void or(BitPlane other) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] |= other.words[w];
+        }
+    }
+
+    void clearAll() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @param from The first cell to consider
+     * @return The first cell at or after {@code from} that is in the set, or
+     *     -1 if there is none
+     */
+    int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long bits = words[w] & (-1L << from);
+        while (bits == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            bits = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * @param other A set over the same cells
+     * @param from The first cell to consider
+     * @return The first cell at or after {@code from} that is in this set or
+     *     in {@code other}, or -1 if there is none
+     */
+    int nextSetBit(BitPlane other, int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long bits = (words[w] | other.words[w]) & (-1L << from);
+        while (bits == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            bits = words[w] | other.words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(bits);
+    }
+}
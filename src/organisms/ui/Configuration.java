@@ -45,6 +45,18 @@ public final class Configuration implements IFCConfiguration {
     Class[] classList;
     Class[] playerList;
     String _logfile;
+    boolean lazyFood;
+    boolean parallelMoves;
+    String foodKernel = FoodKernel.SAMPLED;
+    boolean speciesDeciders = true;
+    boolean decisionCache = true;
+    int lockstepTrials = 1;
+    MoveRules moveRules = MoveRules.CLASSIC;
+    int burnIn;
+    StopRule[] stopRules = new StopRule[0];
+    boolean engineReport;
+    long seed;
+    boolean hasSeed;
 
 
     public void setInitEnergy(int _init) {
@@ -310,4 +322,112 @@ public final class Configuration implements IFCConfiguration {
     public void setLogFile(String __logfile) {
         _logfile = __logfile;
     }
+
+    public void setLazyFood(boolean __lazy) {
+        lazyFood = __lazy;
+    }
+
+    public boolean lazyFood() {
+        return lazyFood;
+    }
+
+    public void setParallelMoves(boolean __parallel) {
+        parallelMoves = __parallel;
+    }
+
+    public boolean parallelMoves() {
+        return parallelMoves;
+    }
+
+    public void setFoodKernel(String __kernel) {
+        foodKernel = __kernel;
+    }
+
+    public String foodKernel() {
+        return foodKernel;
+    }
+
+    public void setSpeciesDeciders(boolean __species) {
+        speciesDeciders = __species;
+    }
+
+    public boolean speciesDeciders() {
+        return speciesDeciders;
+    }
+
+    public void setDecisionCache(boolean __cache) {
+        decisionCache = __cache;
+    }
+
+    public boolean decisionCache() {
+        return decisionCache;
+    }
+
+    public void setLockstepTrials(int __trials) {
+        lockstepTrials = __trials;
+    }
+
+    public int lockstepTrials() {
+        return lockstepTrials;
+    }
+
+    public void setMoveRules(MoveRules __rules) {
+        moveRules = __rules;
+    }
+
+    public MoveRules moveRules() {
+        return moveRules;
+    }
+
+    public void setBurnIn(int __rounds) {
+        burnIn = __rounds;
+    }
+
+    /**
+     * @return The rounds of food growth on the empty grid before the
+     *     founders are placed, or 0
+     */
+    public int burnIn() {
+        return burnIn;
+    }
+
+    public void setStopRules(StopRule[] __rules) {
+        stopRules = __rules;
+    }
+
+    /**
+     * @return The rules that may end a trial early, in the order they are
+     *     checked
+     */
+    public StopRule[] stopRules() {
+        return stopRules;
+    }
+
+    public void setEngineReport(boolean __report) {
+        engineReport = __report;
+    }
+
+    /**
+     * @return Whether tournament reports add the engine's own statistics:
+     *     organism pools, decision caches and throughput
+     */
+    public boolean engineReport() {
+        return engineReport;
+    }
+
+    public void setSeed(long __seed) {
+        seed = __seed;
+        hasSeed = true;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * @return Whether a seed was set; without one, every game draws its own
+     */
+    public boolean hasSeed() {
+        return hasSeed;
+    }
 }
@@ -0,0 +1,16 @@
+package organisms.ui;
+
+import organisms.OrganismsPlayer;
+
+/**
+ * Asks an organism for its decision, for {@link PlayerWrapper#decide}. Each
+ * species has a decider of its own class; see {@link SpeciesDecider}.
+ */
+interface Decider {
+    /**
+     * @param observation What the organism sees, as packed by
+     *     {@link organisms.Packed#observation}
+     * @return The organism's decision, packed
+     */
+    long decide(OrganismsPlayer player, long observation) throws Exception;
+}
@@ -0,0 +1,99 @@
+package organisms.ui;
+
+import java.util.Arrays;
+
+/**
+ * A window of organisms that are next to move, in row-major order.
+ * <p>
+ * An organism sees its own cell and the four next to it, and a move changes
+ * at most the mover's cell and the ones next to it. An organism that is more
+ * than two cells (wrapping like the grid) from every organism before it in
+ * the window therefore sees the same thing now as it will when its turn
+ * comes, and is marked ready: it can decide ahead of time, together with
+ * the other ready organisms. The others decide in turn, once everything
+ * before them has moved. Each member reserves the cells within two steps of
+ * it, and a member whose cell is already reserved is not ready.
+ */
+final class DecisionBatch {
+    static final int MAX_SIZE = 1024;
+
+    final int[] cells = new int[MAX_SIZE];
+    final int[] species = new int[MAX_SIZE];
+    final boolean[] ready = new boolean[MAX_SIZE];
+    final boolean[] decided = new boolean[MAX_SIZE];
+    final long[] decisions = new long[MAX_SIZE];
+    final int[] states = new int[MAX_SIZE];
+    int size;
+    int readyCount;
+
+    // One controller's share of the window, packed for SpeciesController
+    final int[] groupIndex = new int[MAX_SIZE];
+    final int[] groupSlots = new int[MAX_SIZE];
+    final long[] groupObservations = new long[MAX_SIZE];
+    final long[] groupDecisions = new long[MAX_SIZE];
+    final int[] groupStates = new int[MAX_SIZE];
+
+    private final int X;
+    private final int Y;
+    private final int[] reserved;    // Stamp of the window reserving each cell
+    private int stamp = 1;
+
+    DecisionBatch(int X, int Y) {
+        this.X = X;
+        this.Y = Y;
+        this.reserved = new int[X * Y];
+    }
+
+    boolean full() {
+        return size == MAX_SIZE;
+    }
+
+    void add(int cell, int ptype) {
+        boolean clear = reserved[cell] != stamp;
+        cells[size] = cell;
+        species[size] = ptype;
+        ready[size] = clear;
+        decided[size] = false;
+        size++;
+        if (clear) {
+            readyCount++;
+        }
+        reserve(cell);
+    }
+
+    private void reserve(int cell) {
+        int x = cell % X;
+        int y = cell / X;
+        if (x >= 2 && x < X - 2 && y >= 2 && y < Y - 2) {
+            // Away from the edges the cells within reach do not wrap
+            reserved[cell - 2 * X] = stamp;
+            for (int c = cell - X - 1; c <= cell - X + 1; c++) {
+                reserved[c] = stamp;
+            }
+            for (int c = cell - 2; c <= cell + 2; c++) {
+                reserved[c] = stamp;
+            }
+            for (int c = cell + X - 1; c <= cell + X + 1; c++) {
+                reserved[c] = stamp;
+            }
+            reserved[cell + 2 * X] = stamp;
+            return;
+        }
+        for (int dy = -2; dy <= 2; dy++) {
+            int row = ((y + dy) % Y + Y) % Y * X;
+            int reach = 2 - Math.abs(dy);
+            for (int dx = -reach; dx <= reach; dx++) {
+                reserved[row + ((x + dx) % X + X) % X] = stamp;
+            }
+        }
+    }
+
+    void clear() {
+        size = 0;
+        readyCount = 0;
+        if (++stamp == 0) {
+            Arrays.fill(reserved, 0);
+            stamp = 1;
+        }
+    }
+}
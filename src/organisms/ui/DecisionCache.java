@@ -0,0 +1,73 @@
+package organisms.ui;
+
+/**
+ * The decisions of a {@link organisms.Stateless} species, keyed by the packed
+ * observation they answer. The table is direct-mapped with a fixed number of
+ * entries, a newer decision replacing an older one on the same entry, so it
+ * stays small whatever the species sees. It counts the lookups, and the
+ * hits that spared a call to the player, for the tournament report.
+ * <p>
+ * A cache belongs to one game and is only used on the game's own thread.
+ */
+final class DecisionCache {
+    private static final int BITS = 12;    // 4096 entries, 64 KB
+    private static final long FILLED = 1L << 63;    // Above any decision
+    private static final int VERIFY_EVERY = 256;    // Hits between checks
+
+    static final long MISS = -1L;
+
+    private final long[] keys;
+    private final long[] decisions;    // With FILLED set, or 0 if empty
+    private int untilCheck = VERIFY_EVERY;
+    boolean enabled = true;
+    long lookups;
+    long hits;    // Answered without asking the player
+
+    DecisionCache() {
+        keys = new long[1 << BITS];
+        decisions = new long[1 << BITS];
+    }
+
+    DecisionCache(DecisionCache other) {
+        keys = other.keys.clone();
+        decisions = other.decisions.clone();
+        untilCheck = other.untilCheck;
+        enabled = other.enabled;
+        lookups = other.lookups;
+        hits = other.hits;
+    }
+
+    /**
+     * @return The decision cached for the observation, or {@link #MISS}
+     */
+    long get(long observation) {
+        lookups++;
+        int entry = entry(observation);
+        if (decisions[entry] != 0 && keys[entry] == observation) {
+            return decisions[entry] & ~FILLED;
+        }
+        return MISS;
+    }
+
+    void put(long observation, long decision) {
+        int entry = entry(observation);
+        keys[entry] = observation;
+        decisions[entry] = decision | FILLED;
+    }
+
+    /**
+     * @return Whether the player should be asked despite a hit, to check
+     *     the cached decision; true once every {@code VERIFY_EVERY} hits
+     */
+    boolean check() {
+        if (--untilCheck > 0) {
+            return false;
+        }
+        untilCheck = VERIFY_EVERY;
+        return true;
+    }
+
+    private static int entry(long observation) {
+        return (int) ((observation * 0x9E3779B97F4A7C15L) >>> (64 - BITS));
+    }
+}
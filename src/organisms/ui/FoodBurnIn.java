@@ -0,0 +1,87 @@
+package organisms.ui;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The food an empty grid grows in a number of rounds before any organism
+ * arrives, for trials that should start on a grown food carpet instead of a
+ * bare grid. An empty grid is all dormant cells, so the burn-in evolves each
+ * cell through every round at once with {@link FoodSampler#catchUp}: it
+ * costs a pass over the grid, however many rounds it spans.
+ * <p>
+ * Food depends only on the grid size, p, q and K, so every trial of a
+ * configuration, and every configuration with the same food parameters and
+ * seed, starts from the same burn-in. The last few are kept, one short per
+ * cell.
+ */
+final class FoodBurnIn {
+    private static final int CACHED = 8;
+    private static final Map<List<Object>, FoodBurnIn> CACHE =
+        new LinkedHashMap<List<Object>, FoodBurnIn>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<List<Object>, FoodBurnIn> eldest) {
+                return size() > CACHED;
+            }
+        };
+
+    private final short[] food;    // K is at most 1000
+    private final int total;
+
+    private FoodBurnIn(int X, int Y, double p, double q, int K, int rounds,
+                       long seed) {
+        FoodSampler sampler = new FoodSampler(p, q, K);
+        food = new short[X * Y];
+        // Rows draw from their own sub-streams, so they can run in parallel
+        total = IntStream.range(0, Y).parallel().map(y -> {
+            GameRandom random = new GameRandom(
+                GameRandom.derive(seed, GameRandom.BURN_IN, rounds, y));
+            int sum = 0;
+            for (int cell = y * X; cell < (y + 1) * X; cell++) {
+                food[cell] = (short) sampler.catchUp(0, rounds, random);
+                sum += food[cell];
+            }
+            return sum;
+        }).sum();
+    }
+
+    /**
+     * @param seed The seed of the configuration, not of a trial, so that
+     *     its trials share the burn-in
+     * @return The burn-in of the configuration, or null if it has none
+     */
+    static FoodBurnIn of(IFCConfiguration config, long seed) {
+        int rounds = config.burnIn();
+        if (rounds <= 0) {
+            return null;
+        }
+        List<Object> key = Arrays.asList(config.getGridX(),
+            config.getGridY(), config.getP(), config.getQ(), config.K(),
+            rounds, seed);
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(key, k -> new FoodBurnIn(
+                config.getGridX(), config.getGridY(), config.getP(),
+                config.getQ(), config.K(), rounds, seed));
+        }
+    }
+
+    /**
+     * Lays the burnt-in food on an empty grid
+     *
+     * @param foodValue Food on each cell, from {@code base} on
+     * @return The food laid
+     */
+    int plant(int[] foodValue, int base, BitPlane hasFood) {
+        for (int cell = 0; cell < food.length; cell++) {
+            foodValue[base + cell] = food[cell];
+            if (food[cell] > 0) {
+                hasFood.set(cell);
+            }
+        }
+        return total;
+    }
+}
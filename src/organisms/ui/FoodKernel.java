@@ -0,0 +1,195 @@
+package organisms.ui;
+
+/**
+ * Runs the food phase on every cell of a row segment, one uniform pass with
+ * no skipping, as an alternative to the sampled food phase of
+ * {@link OrganismsGame}. Each cell takes one counter-based draw per round,
+ * a hash of the round's key and the cell, and compares it with fixed
+ * thresholds:
+ * <ul>
+ * <li>an occupied cell with food feeds its occupant, as in the sampled
+ * phase;</li>
+ * <li>an empty cell gets a unit of food when the draw is below p;</li>
+ * <li>a cell with food and no occupant keeps its food when the draw is below
+ * (1 - q)^n, the chance that none of its n units double, and otherwise
+ * inverts the capped growth tables of {@link FoodSampler}.</li>
+ * </ul>
+ * Draws depend only on the seed, round and cell, so any kernel produces the
+ * same grid whatever the order and width in which it visits the cells. They
+ * are 30-bit ints, fine enough for any p and q of a game, so that a vector
+ * of draws has as many lanes as a vector of food counts.
+ * <p>
+ * This kernel is the scalar one; {@code VectorFoodKernel}, built from
+ * {@code src-vector} with the incubating Vector API, does the same work in
+ * SIMD lanes.
+ */
+class FoodKernel {
+    static final String SAMPLED = "sampled";
+    static final String SCALAR = "scalar";
+    static final String VECTOR = "vector";
+
+    static final int SCRATCH = 16;    // Ints in the widest vector, 512 bits
+    static final int ONE = 1 << 30;    // Draws are below this
+    static final int GOLDEN = 0x9E3779B9;
+    static final int MIX_1 = 0x85EBCA6B;
+    static final int MIX_2 = 0xC2B2AE35;
+
+    final int K;
+    final int u;
+    final int M;
+    final int spawnBelow;    // An empty cell gets food below this
+    final int[] stayBelow;    // n units keep n below stayBelow[n]
+    private final int[][] growBelow;    // n units grow by j below [n][j]
+    private final boolean doubles;    // Growth is certain
+
+    FoodKernel(double p, double q, int K, int u, int M, double[][] tables) {
+        this.K = K;
+        this.u = u;
+        this.M = M;
+        this.spawnBelow = threshold(p);
+        this.doubles = q >= 1.0;
+        this.stayBelow = new int[K + 1];
+        this.growBelow = tables == null ? null : new int[K][];
+        for (int n = 0; n <= K; n++) {
+            if (n == 0 || n == K || q <= 0.0) {
+                stayBelow[n] = ONE;
+            } else if (!doubles) {
+                growBelow[n] = new int[tables[n].length];
+                for (int j = 0; j < tables[n].length; j++) {
+                    growBelow[n][j] = threshold(tables[n][j]);
+                }
+                stayBelow[n] = growBelow[n][0];
+            }
+        }
+    }
+
+    /**
+     * @param name {@link #SAMPLED}, {@link #SCALAR} or {@link #VECTOR}
+     * @return The kernel of that name for the given parameters, or null for
+     *     the sampled food phase. The vector kernel falls back to the
+     *     scalar one when it or the Vector API is missing, and both fall
+     *     back to sampling when growth cannot be tabulated.
+     */
+    static FoodKernel create(String name, FoodSampler sampler, double p,
+                             double q, int K, int u, int M) {
+        if (SAMPLED.equals(name)) {
+            return null;
+        }
+        double[][] tables = sampler.growthTables();
+        boolean tabulated = tables != null;
+        for (int n = 1; tabulated && n < K; n++) {
+            tabulated = tables[n] != null;
+        }
+        if (q > 0.0 && q < 1.0 && !tabulated) {
+            System.err.println("Food kernel needs K <= 128; sampling food");
+            return null;
+        }
+        if (VECTOR.equals(name)) {
+            try {
+                return (FoodKernel) Class.forName(
+                        "organisms.ui.VectorFoodKernel")
+                    .getDeclaredConstructor(double.class, double.class,
+                        int.class, int.class, int.class, double[][].class)
+                    .newInstance(p, q, K, u, M, tables);
+            } catch (ReflectiveOperationException | LinkageError EXC) {
+                System.err.println("Vector food kernel unavailable (" + EXC +
+                    "); using the scalar kernel");
+            }
+        }
+        return new FoodKernel(p, q, K, u, M, tables);
+    }
+
+    /**
+     * @return The key of the draws of a round
+     */
+    static long key(long seed, int round) {
+        return GameRandom.derive(seed, GameRandom.FOOD_CELLS, round, 0);
+    }
+
+    /**
+     * Runs one round of the food phase on cells {@code from} to
+     * {@code to - 1}
+     *
+     * @param food Food on each cell, from {@code base} on
+     * @param energy Energy of each occupant, from {@code base} on
+     * @param playerType Species of each occupant, or -1
+     * @param fed Adds the energy fed to each species
+     * @param scratch {@link #SCRATCH} ints for the kernel to overwrite, one
+     *     buffer per thread, so that no call allocates
+     * @return The change in food
+     */
+    int evolve(int[] food, int[] energy, int base, int[] playerType,
+               BitPlane hasFood, int from, int to, long key, int[] fed,
+               int[] scratch) {
+        int change = 0;
+        for (int cell = from; cell < to; cell++) {
+            int f = food[base + cell];
+            int after = f;
+            if (playerType[cell] >= 0) {
+                if (f > 0 && energy[base + cell] <= M - u) {
+                    energy[base + cell] += u;
+                    fed[playerType[cell]] += u;
+                    after = f - 1;
+                }
+            } else if (f == 0) {
+                if (draw(key, cell) < spawnBelow) {
+                    after = 1;
+                }
+            } else {
+                int r = draw(key, cell);
+                if (r >= stayBelow[f]) {
+                    after = grow(f, r);
+                }
+            }
+            if (after != f) {
+                food[base + cell] = after;
+                change += after - f;
+                if (after > 0) {
+                    hasFood.set(cell);
+                } else {
+                    hasFood.clear(cell);
+                }
+            }
+        }
+        return change;
+    }
+
+    /**
+     * @return The cell's draw of the round, from 0 to {@code ONE - 1}: the
+     *     cell, with the key's high half mixed in, steps a Weyl sequence
+     *     started at the low half, and MurmurHash3's finalizer scrambles it
+     */
+    static int draw(long key, int cell) {
+        int h = (cell ^ (int) (key >>> 32)) * GOLDEN + (int) key;
+        h = (h ^ (h >>> 16)) * MIX_1;
+        h = (h ^ (h >>> 13)) * MIX_2;
+        return (h ^ (h >>> 16)) >>> 2;
+    }
+
+    /**
+     * @param n The food on an unoccupied cell, between 1 and K - 1
+     * @param r The cell's draw, at least {@code stayBelow[n]}
+     * @return The food on the cell after it grows
+     */
+    int grow(int n, int r) {
+        if (doubles) {
+            return Math.min(K, 2 * n);
+        }
+        int[] below = growBelow[n];
+        int j = 1;
+        while (r >= below[j]) {
+            j++;
+        }
+        return n + j;
+    }
+
+    /**
+     * @return Draws below this come out with probability {@code chance}
+     */
+    private static int threshold(double chance) {
+        if (chance <= 0.0) {
+            return 0;
+        }
+        return chance >= 1.0 ? ONE : (int) Math.ceil(chance * ONE);
+    }
+}
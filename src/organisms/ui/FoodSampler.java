@@ -0,0 +1,196 @@
+package organisms.ui;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws food spawning and growth for unoccupied cells.
+ * <p>
+ * Every empty cell has probability p of food blowing in. Rather than testing
+ * each cell, {@link #skip} draws the geometric number of cells passed over
+ * before the next success, so spawning costs one draw per spawn.
+ * <p>
+ * Each of the n units on a cell doubles independently with probability q, so
+ * the growth is one binomial(n, q) sample, capped so the cell never exceeds K
+ * units. For small K the capped distribution of every food count is
+ * precomputed as a CDF table and sampled with a single uniform draw. For
+ * larger K the same distribution is sampled by inversion, walking the
+ * binomial probabilities from zero; the walk stops at the cap, so it costs
+ * O(min(nq, K - n)) steps.
+ * <p>
+ * {@link #catchUp} advances an unoccupied cell by many rounds at once. It
+ * samples how long the cell keeps its current amount and jumps straight to
+ * the next change, so its cost depends on how often the food changes, not on
+ * the number of rounds.
+ */
+final class FoodSampler {
+    private static final int TABLE_MAX_K = 128;
+    private static final int MAX_SKIP = Integer.MAX_VALUE >> 1;
+
+    private final double p;
+    private final double logMissP;    // log(1 - p)
+    private final double q;
+    private final int K;
+    private final double odds;    // q / (1 - q)
+    private final double[][] cdf;    // cdf[n][j] = P(growth <= j), or null
+
+    FoodSampler(double p, double q, int K) {
+        this.p = p;
+        this.logMissP = Math.log1p(-p);
+        this.q = q;
+        this.K = K;
+        this.odds = q / (1.0 - q);
+        this.cdf = (q > 0.0 && q < 1.0 && K <= TABLE_MAX_K) ? buildTables() :
+            null;
+    }
+
+    private double[][] buildTables() {
+        double[][] tables = new double[K][];
+        for (int n = 1; n < K; n++) {
+            int limit = Math.min(n, K - n);
+            double pmf = Math.pow(1.0 - q, n);
+            if (pmf == 0.0) {
+                // Probabilities underflow; grow() samples these directly
+                continue;
+            }
+            double[] table = new double[limit + 1];
+            double total = pmf;
+            for (int j = 0; j < limit; j++) {
+                table[j] = total;
+                pmf *= (n - j) / (j + 1.0) * odds;
+                total += pmf;
+            }
+            table[limit] = 1.0;    // everything from here on is capped
+            tables[n] = table;
+        }
+        return tables;
+    }
+
+    /**
+     * @return The CDF tables of capped growth: entry [n][j] is the
+     *     probability that n units grow by at most j; null when growth is
+     *     certain, impossible, or K is too large for tables. A row may be
+     *     null where its probabilities underflow.
+     */
+    double[][] growthTables() {
+        return cdf;
+    }
+
+    /**
+     * Counts the failed Bernoulli(p) trials before the next success, so that
+     * stepping {@code skip() + 1} cells at a time visits exactly the cells
+     * that food blows into.
+     *
+     * @param random The source of randomness
+     * @return The number of cells to pass over, at most {@code MAX_SKIP}
+     */
+    int skip(RandomGenerator random) {
+        if (p >= 1.0) {
+            return 0;
+        }
+        if (p <= 0.0) {
+            return MAX_SKIP;
+        }
+        double gap = Math.floor(Math.log(1.0 - random.nextDouble()) /
+            logMissP);
+        return gap < MAX_SKIP ? (int) gap : MAX_SKIP;
+    }
+
+    /**
+     * @param n The food on the cell, between 1 and K
+     * @param random The source of randomness
+     * @return The food on the cell after one round of doubling
+     */
+    int grow(int n, RandomGenerator random) {
+        if (n >= K || q <= 0.0) {
+            return n;
+        }
+        if (q >= 1.0) {
+            return Math.min(K, 2 * n);
+        }
+        return growFrom(n, random.nextDouble(), random);
+    }
+
+    /**
+     * Inverts the capped growth distribution of n units at {@code u}
+     */
+    private int growFrom(int n, double u, RandomGenerator random) {
+        if (cdf != null && cdf[n] != null) {
+            double[] table = cdf[n];
+            int j = 0;
+            while (u >= table[j]) {
+                j++;
+            }
+            return n + j;
+        }
+        double pmf = Math.pow(1.0 - q, n);
+        if (pmf == 0.0) {
+            return growByUnit(n, random);
+        }
+        int limit = Math.min(n, K - n);
+        double total = pmf;
+        int j = 0;
+        while (u >= total && j < limit) {
+            pmf *= (n - j) / (j + 1.0) * odds;
+            total += pmf;
+            j++;
+        }
+        return n + j;
+    }
+
+    /**
+     * Evolves an unoccupied cell through several rounds of spawning and
+     * doubling. The result has the same distribution as calling
+     * {@link #skip}-based spawning and {@link #grow} once per round.
+     *
+     * @param n The food on the cell, between 0 and K
+     * @param rounds The number of rounds to evolve the cell by
+     * @param random The source of randomness
+     * @return The food on the cell after {@code rounds} rounds
+     */
+    int catchUp(int n, int rounds, RandomGenerator random) {
+        while (rounds > 0 && n < K) {
+            if (n == 0) {
+                int wait = skip(random);
+                if (wait >= rounds) {
+                    return 0;
+                }
+                rounds -= wait + 1;
+                n = 1;
+                continue;
+            }
+            // Rounds in which none of the n units double. For q too small
+            // to register against 1, the food never grows.
+            double stay = Math.pow(1.0 - q, n);
+            if (q <= 0.0 || stay >= 1.0) {
+                return n;
+            }
+            if (stay > 0.0) {
+                double hold = Math.floor(Math.log(1.0 - random.nextDouble()) /
+                    Math.log(stay));
+                if (hold >= rounds) {
+                    return n;
+                }
+                rounds -= (int) hold;
+            }
+            rounds--;
+            // The round in which the food grows, given that it does
+            n = q >= 1.0 ? Math.min(K, 2 * n) :
+                growFrom(n, stay + (1.0 - stay) * random.nextDouble(), random);
+        }
+        return n;
+    }
+
+    /**
+     * Flips one coin per unit. Only used when (1 - q)^n underflows, i.e. for
+     * very large n and q, where inversion from zero is not possible.
+     */
+    private int growByUnit(int n, RandomGenerator random) {
+        int newfood = 0;
+        for (int i = 0; i < n; i++) {
+            if (random.nextDouble() < q) {
+                newfood++;
+            }
+        }
+        return Math.min(K, n + newfood);
+    }
+}
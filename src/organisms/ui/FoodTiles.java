@@ -0,0 +1,133 @@
+package organisms.ui;
+
+import java.util.Arrays;
+
+/**
+ * Splits the grid into square tiles for lazy food evolution. Each tile counts
+ * the organisms inside it and records the last round its food was evolved.
+ * <p>
+ * Organisms only see and move onto cells next to them, so food on a tile
+ * matters in a round only if the tile or one of its eight neighbours holds an
+ * organism at the start of that round. Other tiles may sit dormant and catch
+ * up later, since nothing can observe them in the meantime.
+ */
+final class FoodTiles {
+    static final int TILE_SIZE = 32;
+
+    private final int X;
+    private final int Y;
+    private final int cols;
+    private final int rows;
+    private final int[] organismCount;
+    private final int[] lastRound;
+
+    FoodTiles(int X, int Y) {
+        this.X = X;
+        this.Y = Y;
+        this.cols = (X + TILE_SIZE - 1) / TILE_SIZE;
+        this.rows = (Y + TILE_SIZE - 1) / TILE_SIZE;
+        this.organismCount = new int[cols * rows];
+        this.lastRound = new int[cols * rows];
+        Arrays.fill(lastRound, -1);
+    }
+
+    FoodTiles(FoodTiles other) {
+        this.X = other.X;
+        this.Y = other.Y;
+        this.cols = other.cols;
+        this.rows = other.rows;
+        this.organismCount = other.organismCount.clone();
+        this.lastRound = other.lastRound.clone();
+    }
+
+    int count() {
+        return organismCount.length;
+    }
+
+    /**
+     * Empties every tile and marks its food as never evolved
+     */
+    void clear() {
+        Arrays.fill(organismCount, 0);
+        Arrays.fill(lastRound, -1);
+    }
+
+    /**
+     * @return The number of rows of tiles, each a band of grid rows
+     */
+    int rows() {
+        return rows;
+    }
+
+    int cols() {
+        return cols;
+    }
+
+    int tileOf(int cell) {
+        int x = cell % X;
+        int y = cell / X;
+        return (y / TILE_SIZE) * cols + x / TILE_SIZE;
+    }
+
+    int left(int tile) {
+        return (tile % cols) * TILE_SIZE;
+    }
+
+    int top(int tile) {
+        return (tile / cols) * TILE_SIZE;
+    }
+
+    int width(int tile) {
+        return Math.min(TILE_SIZE, X - left(tile));
+    }
+
+    int height(int tile) {
+        return Math.min(TILE_SIZE, Y - top(tile));
+    }
+
+    void add(int cell) {
+        organismCount[tileOf(cell)]++;
+    }
+
+    void remove(int cell) {
+        organismCount[tileOf(cell)]--;
+    }
+
+    void move(int from, int to) {
+        int a = tileOf(from);
+        int b = tileOf(to);
+        if (a != b) {
+            organismCount[a]--;
+            organismCount[b]++;
+        }
+    }
+
+    /**
+     * @return The last round in which the tile's food was evolved, or -1
+     */
+    int lastRound(int tile) {
+        return lastRound[tile];
+    }
+
+    void setLastRound(int tile, int round) {
+        lastRound[tile] = round;
+    }
+
+    /**
+     * @return Whether the tile or any tile around it (wrapping like the grid)
+     *     holds an organism
+     */
+    boolean needed(int tile) {
+        int tx = tile % cols;
+        int ty = tile / cols;
+        for (int dy = -1; dy <= 1; dy++) {
+            int row = ((ty + dy + rows) % rows) * cols;
+            for (int dx = -1; dx <= 1; dx++) {
+                if (organismCount[row + (tx + dx + cols) % cols] > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
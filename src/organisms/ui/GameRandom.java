@@ -0,0 +1,67 @@
+package organisms.ui;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The engine's source of randomness. Every draw of a game comes from a
+ * sub-stream keyed by the game's seed, the phase of the round it belongs to,
+ * the round and an index within the phase (such as a food tile), so the same
+ * seed replays a game exactly, whichever thread or order the pieces run in.
+ * <p>
+ * A stream is a SplitMix64 generator that can be moved to another key with
+ * {@link #reseed} instead of being reallocated.
+ */
+final class GameRandom implements RandomGenerator {
+    // Phases
+    static final int TRIAL = 1;    // Seeds of the trials of a configuration
+    static final int PLACEMENT = 2;    // Founder positions
+    static final int FOOD = 3;    // Spawning, doubling; index is the tile
+    static final int CATCH_UP = 4;    // Dormant tiles; index is the tile
+    static final int MOVES = 5;    // Fights during the move phase
+    static final int PLAYERS = 6;    // Root of the organisms' own generators
+    static final int CLAIMS = 7;    // Simultaneous ties; index is the cell
+    static final int FOOD_CELLS = 8;    // Keys of FoodKernel's per-cell draws
+    static final int BURN_IN = 9;    // Food before play; index is the row
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Restarts the stream at the given seed, as if newly constructed
+     */
+    void reseed(long seed) {
+        state = seed;
+    }
+
+    /**
+     * Restarts the stream at the sub-stream for the given key
+     */
+    void reseed(long seed, int phase, long round, long index) {
+        state = derive(seed, phase, round, index);
+    }
+
+    /**
+     * @return The seed of the sub-stream for the given key
+     */
+    static long derive(long seed, int phase, long round, long index) {
+        long h = mix(seed + phase * GOLDEN_GAMMA);
+        h = mix(h + (round + 1) * GOLDEN_GAMMA);
+        return mix(h + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -113,4 +113,52 @@ public interface IFCConfiguration extends Serializable {
     String logFile() ;
 
     void setLogFile(String __str) ;
+
+    // Engine options
+    void setLazyFood(boolean __lazy) ;
+
+    boolean lazyFood() ;
+
+    void setParallelMoves(boolean __parallel) ;
+
+    boolean parallelMoves() ;
+
+    void setFoodKernel(String __kernel) ;
+
+    String foodKernel() ;
+
+    void setSpeciesDeciders(boolean __species) ;
+
+    boolean speciesDeciders() ;
+
+    void setDecisionCache(boolean __cache) ;
+
+    boolean decisionCache() ;
+
+    void setLockstepTrials(int __trials) ;
+
+    int lockstepTrials() ;
+
+    void setEngineReport(boolean __report) ;
+
+    boolean engineReport() ;
+
+    void setSeed(long __seed) ;
+
+    long seed() ;
+
+    boolean hasSeed() ;
+
+    // Rules
+    void setMoveRules(MoveRules __rules) ;
+
+    MoveRules moveRules() ;
+
+    void setBurnIn(int __rounds) ;
+
+    int burnIn() ;
+
+    void setStopRules(StopRule[] __rules) ;
+
+    StopRule[] stopRules() ;
 }
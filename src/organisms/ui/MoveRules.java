@@ -0,0 +1,39 @@
+package organisms.ui;
+
+import java.util.Locale;
+
+/**
+ * How the organisms of a round take their turns
+ */
+public enum MoveRules {
+    /**
+     * One at a time in row-major order; each organism sees the moves of the
+     * organisms before it
+     */
+    CLASSIC,
+
+    /**
+     * All at once: every organism decides from the grid as it stood at the
+     * start of the round, and moves or births onto the same cell are settled
+     * in favour of the organism with the most energy
+     */
+    SIMULTANEOUS;
+
+    /**
+     * @param name A rule set's name, in any case
+     * @return The rule set
+     * @throws RuntimeException if there is no rule set by that name
+     */
+    static MoveRules parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException EXC) {
+            throw new RuntimeException("Unknown rules, " + name);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
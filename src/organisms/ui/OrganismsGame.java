@@ -1,7 +1,8 @@
 package organisms.ui;
 
 import organisms.Constants;
-import organisms.Move;
+import organisms.OrganismsPlayer;
+import organisms.Packed;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -12,11 +13,13 @@ import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.text.NumberFormat;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static organisms.Constants.Action.STAY_PUT;
 
@@ -25,12 +28,11 @@ import static organisms.Constants.Action.STAY_PUT;
 
 public final class OrganismsGame extends IFCModel implements Constants {
 
-    Vector roundList;  // all the rounds and what players looked like on them
+    Vector<Round> roundList;  // all the rounds and what players looked like on them
     GraphDrawer graph;
     boolean shouldGraph;
 
     private static final boolean fightingAllowed = false;
-    private static int[][] food;
 
     private Class[] _classlist;
     private Class[] _playerlist;
@@ -40,7 +42,6 @@ public final class OrganismsGame extends IFCModel implements Constants {
     private int _state;
     private transient IFCUI _ui;
     private IFCConfiguration _config;
-    private static Random _random;
     private JTextField _input;
     private ControlPanel _control;
     private ViewPanel _view;
@@ -82,15 +83,17 @@ public final class OrganismsGame extends IFCModel implements Constants {
 
     class PlayerEntry {
         Class _playerclass;
+        PlayerWrapper _wrapper;
         String _name;
         Color _color;
         int _population;
         int _totalenergy;
         boolean isExtinct = false;
 
-        PlayerEntry(Class __class, String __name, Color __color) {
+        PlayerEntry(PlayerWrapper __wrapper, String __name, Color __color) {
             _population = 1;
-            _playerclass = __class;
+            _playerclass = __wrapper.playerClass();
+            _wrapper = __wrapper;
             _name = __name;
             _color = __color;
             _totalenergy = 0;
@@ -129,13 +132,6 @@ public final class OrganismsGame extends IFCModel implements Constants {
         }
     }
 
-    class Cell {
-        int foodvalue;
-        int playertype;
-        public PlayerWrapper pw;
-        boolean movedone;
-    }
-
     private int population;    // Total number of amoebae on the grid
 
     private int init_energy;    // Initial Energy of an Organism
@@ -148,9 +144,58 @@ public final class OrganismsGame extends IFCModel implements Constants {
     private int u;    // Energy per unit food
     private double p;    // Food Generation probability
     private double q;    // Food Doubling probability
-    private Cell[][] cells;    // Grid
+    private long seed;    // Replays this game exactly
+    private GameRandom moveRandom;    // Reseeded for each round's moves
+    private PlayerRandom playerRandom;    // Splits into organisms' sources
+    private FoodSampler foodSampler;    // Draws food spawning and doubling
+    private FoodKernel foodKernel;    // Visits every cell instead, or null
+    private FoodBurnIn burnIn;    // Food every trial starts on, or null
+    private boolean lazyFood;    // Let unobserved tiles of food lie dormant
+    private boolean parallelMoves;    // Decide ready organisms on many threads
+    private static final int MIN_PARALLEL_MOVES = 64;    // Else one thread
+    private FoodBand[] foodBands;    // One per row of food tiles
+    private MoveRules moveRules;    // Whether organisms move in turn or at once
+    private static final int MIN_PARALLEL_FOOD = 1 << 16;    // Cells
     private PlayerEntry[] OrigPlayers;    // Player Classes
 
+    // The grid is stored as flat per-cell arrays, indexed row-major by
+    // y * X + x (see cell()), so that the move order is also the memory order
+    static final int EMPTY = -1;    // playerType of an unoccupied cell
+    private int[] foodValue;    // Food units on each cell, from base on
+    private int[] playerType;    // Species of each occupant, or EMPTY
+    private int[] energy;    // Energy of each occupant, from base on
+    private int base;    // Where this game's cells start in the two above
+    private int[] externalState;    // Visible state of each occupant
+    private boolean[] moveDone;    // Occupant has already acted this round
+    private OrganismsPlayer[] organisms;    // Occupant of each cell, or null
+    private int[] slot;    // Species-local slot of each cell's occupant
+    private BitPlane occupied;    // Cells with an occupant, in move order
+    private BitPlane hasFood;    // Cells with at least one unit of food
+    private FoodTiles foodTiles;    // Organism counts and food age per tile
+    private int totalFood;    // Sum of foodValue, kept up to date by setFood
+    private DecisionBatch batch;    // Organisms waiting for their controller
+
+    // After a fork, the fork's organisms are the parent's objects until the
+    // fork first touches each and copies it for itself. The parent keeps its
+    // own objects, but has a fork copy one before touching it.
+    private volatile BitPlane inherited;    // Cells on the parent's objects
+    private int inheritedCount;    // Guarded by this, like inherited
+    private BitPlane lent;    // Cells whose objects a fork may still share
+    private List<WeakReference<OrganismsGame>> forks;    // Those forks
+
+    // Under simultaneous rules the grid is only read while organisms decide
+    // and claims are settled; what they do is buffered here until then
+    private static final int MIN_PARALLEL_CLAIMS = 1 << 12;    // Organisms
+    private int[] movers;    // Cells of the organisms deciding this round
+    private int moverCount;
+    private long[] pendingDecision;    // Indexed by each organism's cell
+    private int[] pendingState;
+    private byte[] outcome;
+    private static final byte STAYS = 0;
+    private static final byte MOVES = 1;
+    private static final byte BEARS = 2;
+    private static final byte DIES = 3;
+
     // variables for tournament stat tracking
     // length is equal to the numberof players
     private int[] extinctionTimes; // will start with all -1
@@ -158,6 +203,13 @@ public final class OrganismsGame extends IFCModel implements Constants {
     private long[] populationWhileAlive; // sums; will be turned into averages
     private int[] endCounts;
     private int[] endEnergies;
+    private long organismMoves;    // Decisions carried out, for throughput
+    private long runNanos;    // Time spent in runGame()
+    private StopRule.Watch[] stopWatches;    // One per stop rule
+    private int[] roundPopulation;    // Scratch for the stop rules
+    private int[] roundEnergy;
+    private StopRule stoppedBy;    // The rule that ended the trial, or null
+    private boolean keepRounds = true;    // Record each round for the GUI
 
     //********************************************
     //*
@@ -169,9 +221,17 @@ public final class OrganismsGame extends IFCModel implements Constants {
     }
 
     public OrganismsGame(IFCConfiguration __config) {
-        roundList = new Vector();
+        this(__config, seedOf(__config));
+    }
+
+    /**
+     * @param __seed The seed of every random draw of the game, so that the
+     *     same configuration and seed replay the same game
+     */
+    public OrganismsGame(IFCConfiguration __config, long __seed) {
+        roundList = new Vector<Round>();
         shouldGraph = false;
-        create(__config);
+        create(__config, __seed);
     }
 
     public OrganismsGame(IFCTournament __tournament) {
@@ -180,7 +240,7 @@ public final class OrganismsGame extends IFCModel implements Constants {
     }
 
     public OrganismsGame(String[] csvConfig, Class[] classes) {
-        roundList = new Vector();
+        roundList = new Vector<Round>();
         shouldGraph = false;
         IFCConfiguration config = getConfigFromCSVRow(csvConfig, classes);
         create(config);
@@ -194,13 +254,17 @@ public final class OrganismsGame extends IFCModel implements Constants {
         System.out.println("Starting config " + csvConfig[12]);
         IFCConfiguration config = getConfigFromCSVRow(csvConfig, classes);
         int trials = Integer.parseInt(csvConfig[11]);
-        List<OrganismsGame> games = new ArrayList<>(trials);
+        long seed = seedOf(config);
+        long[] seeds = new long[trials];
+        config.setSeed(seed);    // Shared by the trials' food burn-in
 
+        // Each trial has its own seed, so how the trials are batched in
+        // lockstep (LOCKSTEP_TRIALS) and scheduled cannot change results
         for (int i = 0; i < trials; i++) {
-            games.add(new OrganismsGame(config));
+            seeds[i] = GameRandom.derive(seed, GameRandom.TRIAL, 0, i);
         }
 
-        games.parallelStream().forEach(OrganismsGame::runGame);
+        List<TrialResult> games = TrialBatch.runAll(config, seeds);
 
         double[] averageActiveEnergy = longAverages(
             games, g -> g.energyWhileAlive);
@@ -213,8 +277,8 @@ public final class OrganismsGame extends IFCModel implements Constants {
         int[] cohabitationCounts = new int[config.numPlayers()];
         games.forEach(game -> {
             List<Integer> indicesOfLivingPlayers = new ArrayList<>();
-            for (int i = 0; i < game.numPlayers(); i++) {
-                if (game.OrigPlayers[i]._population == 0) {
+            for (int i = 0; i < game.endCounts.length; i++) {
+                if (game.endCounts[i] == 0) {
                     extinctionCounts[i]++;
                 } else {
                     indicesOfLivingPlayers.add(i);
@@ -238,6 +302,18 @@ public final class OrganismsGame extends IFCModel implements Constants {
         sb.append("================================================\n");
         sb.append(csvConfig[12]).append('\n');
         sb.append("Trials: ").append(trials).append('\n');
+        // The seed is reported even when drawn afresh, so that every run
+        // can be replayed; lines for options that are off are left out
+        sb.append("Seed: ").append(seed).append('\n');
+        if (config.moveRules() != MoveRules.CLASSIC) {
+            sb.append("Rules: ").append(config.moveRules()).append('\n');
+        }
+        if (config.burnIn() > 0) {
+            sb.append("Burn-in: ").append(config.burnIn()).append(" rounds\n");
+        }
+        if (config.stopRules().length > 0) {
+            appendStopReport(sb, games, config.stopRules());
+        }
 
         int maxNameLength = 6;
         for (Class c : classes) {
@@ -286,12 +362,137 @@ public final class OrganismsGame extends IFCModel implements Constants {
             sb.append("\n");
         }
 
+        if (config.engineReport()) {
+            appendPoolReport(sb, games, classes, maxNameLength);
+            appendCacheReport(sb, games, classes, maxNameLength);
+        }
+        // Rows on other rules are compared against the classic engine
+        if (config.engineReport() ||
+            config.moveRules() != MoveRules.CLASSIC) {
+            appendThroughput(sb, games);
+        }
         return sb.toString();
     }
 
-    private static int[] intSums(List<OrganismsGame> completedGames,
-                                  Function<OrganismsGame, int[]> mapper) {
-        Optional<int[]> acc = completedGames.parallelStream().map(mapper)
+    /**
+     * Reports which trials a stop rule ended early, and when. Their averages
+     * while alive are extrapolated, so the report says so.
+     */
+    private static void appendStopReport(StringBuilder sb,
+                                         List<TrialResult> games,
+                                         StopRule[] rules) {
+        sb.append("Stop rules: ");
+        for (int r = 0; r < rules.length; r++) {
+            sb.append(r == 0 ? "" : ", ").append(rules[r]);
+        }
+        sb.append('\n');
+        Map<String, Integer> fired = new LinkedHashMap<>();
+        long rounds = 0;
+        int stopped = 0;
+        for (TrialResult game : games) {
+            if (game.stopRule != null) {
+                fired.merge(game.stopRule, 1, Integer::sum);
+                rounds += game.stopRound;
+                stopped++;
+            }
+        }
+        sb.append("Stopped early: ").append(stopped).append(" of ")
+            .append(games.size()).append(" trials");
+        if (stopped > 0) {
+            sb.append(String.format(", at round %.1f on average (",
+                (double) rounds / stopped));
+            boolean first = true;
+            for (Map.Entry<String, Integer> entry : fired.entrySet()) {
+                sb.append(first ? "" : ", ").append(entry.getKey())
+                    .append(": ").append(entry.getValue());
+                first = false;
+            }
+            sb.append("); their averages while alive are extrapolated");
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * Reports how many organism moves the trials carried out per second of
+     * their own running time, so that rule sets can be compared
+     */
+    private static void appendThroughput(StringBuilder sb,
+                                         List<TrialResult> games) {
+        long moves = 0;
+        long nanos = 0;
+        for (TrialResult game : games) {
+            moves += game.organismMoves;
+            nanos += game.runNanos;
+        }
+        sb.append(String.format("Throughput: %.0f organism moves/s\n",
+            nanos == 0 ? 0.0 : moves * 1e9 / nanos));
+    }
+
+    /**
+     * Reports how many births of each {@link organisms.Recyclable} species
+     * reused a dead organism instead of constructing a new one
+     */
+    private static void appendPoolReport(StringBuilder sb,
+                                         List<TrialResult> games,
+                                         Class<?>[] classes,
+                                         int maxNameLength) {
+        boolean any = false;
+        for (int i = 0; i < classes.length; i++) {
+            long births = 0;
+            long reused = 0;
+            for (TrialResult game : games) {
+                births += game.births[i];
+                reused += game.reused[i];
+            }
+            if (births == 0) {
+                continue;
+            }
+            if (!any) {
+                sb.append(padRight("Organism pool", maxNameLength));
+                sb.append(" | Births | Reused | Hit rate\n");
+                any = true;
+            }
+            sb.append(padRight(classes[i].getName(), maxNameLength));
+            sb.append(String.format(" | %6d | %6d | %7.2f%%\n", births, reused,
+                100.0 * reused / births));
+        }
+    }
+
+    /**
+     * Reports how many decisions of each {@link organisms.Stateless} species
+     * were answered from its decision cache instead of by the player
+     */
+    private static void appendCacheReport(StringBuilder sb,
+                                          List<TrialResult> games,
+                                          Class<?>[] classes,
+                                          int maxNameLength) {
+        boolean any = false;
+        for (int i = 0; i < classes.length; i++) {
+            long lookups = 0;
+            long cached = 0;
+            for (TrialResult game : games) {
+                lookups += game.decisionLookups[i];
+                cached += game.cachedDecisions[i];
+            }
+            if (lookups == 0) {
+                continue;
+            }
+            if (!any) {
+                sb.append(padRight("Decision cache", maxNameLength));
+                sb.append(" |    Lookups |     Cached | Hit rate\n");
+                any = true;
+            }
+            sb.append(padRight(classes[i].getName(), maxNameLength));
+            sb.append(String.format(" | %10d | %10d | %7.2f%%\n", lookups,
+                cached, 100.0 * cached / lookups));
+        }
+    }
+
+    private static int[] intSums(List<TrialResult> completedGames,
+                                  Function<TrialResult, int[]> mapper) {
+        // Sums into copies, leaving the results as they were
+        Optional<int[]> acc = completedGames.parallelStream()
+            .map(g -> mapper.apply(g).clone())
             .reduce((dubs, dubs2) -> {
                     for (int i = 0; i < dubs.length; i++) {
                         dubs[i] += dubs2[i];
@@ -307,8 +508,8 @@ public final class OrganismsGame extends IFCModel implements Constants {
         }
     }
 
-    private static double[] intAverages(List<OrganismsGame> completedGames,
-                                        Function<OrganismsGame, int[]> mapper) {
+    private static double[] intAverages(List<TrialResult> completedGames,
+                                        Function<TrialResult, int[]> mapper) {
         int[] totals = intSums(completedGames, mapper);
         double[] averages = new double[totals.length];
         for (int i = 0; i < totals.length; i++) {
@@ -317,9 +518,10 @@ public final class OrganismsGame extends IFCModel implements Constants {
         return averages;
     }
 
-    private static long[] longSums(List<OrganismsGame> completedGames,
-                                   Function<OrganismsGame, long[]> mapper) {
-        Optional<long[]> acc = completedGames.parallelStream().map(mapper)
+    private static long[] longSums(List<TrialResult> completedGames,
+                                   Function<TrialResult, long[]> mapper) {
+        Optional<long[]> acc = completedGames.parallelStream()
+            .map(g -> mapper.apply(g).clone())
             .reduce((dubs, dubs2) -> {
                     for (int i = 0; i < dubs.length; i++) {
                         dubs[i] += dubs2[i];
@@ -336,8 +538,8 @@ public final class OrganismsGame extends IFCModel implements Constants {
     }
 
     private static double[] longAverages(
-            List<OrganismsGame> completedGames,
-            Function<OrganismsGame, long[]> mapper) {
+            List<TrialResult> completedGames,
+            Function<TrialResult, long[]> mapper) {
         long[] totals = longSums(completedGames, mapper);
         double[] averages = new double[totals.length];
         for (int i = 0; i < totals.length; i++) {
@@ -346,6 +548,14 @@ public final class OrganismsGame extends IFCModel implements Constants {
         return averages;
     }
 
+    /**
+     * @return The configuration's seed, or a fresh one if it has none
+     */
+    private static long seedOf(IFCConfiguration config) {
+        return config.hasSeed() ? config.seed() :
+            ThreadLocalRandom.current().nextLong();
+    }
+
     private static String padRight(String s, int n) {
         return String.format("%-" + n + "s", s);
     }
@@ -359,7 +569,7 @@ public final class OrganismsGame extends IFCModel implements Constants {
 
         IFCGameRecord[] games;
 
-        _random = ThreadLocalRandom.current();
+        long tournamentSeed = seedOf(_config);
 
         _maxrounds = _config.numRounds();
         init_energy = _config.getInitEnergy();
@@ -372,53 +582,45 @@ public final class OrganismsGame extends IFCModel implements Constants {
         p = _config.getP();
         q = _config.getQ();
         s = _config.getS();
+        foodSampler = new FoodSampler(p, q, K);
+        foodKernel = FoodKernel.create(_config.foodKernel(), foodSampler, p,
+            q, K, u, M);
+        lazyFood = _config.lazyFood();
+        parallelMoves = _config.parallelMoves();
+        moveRules = _config.moveRules();
 
         // TODO: tournament stat trackers should be initialized and used
         //   But this method is never used in any meaningful way so that's
         //   a problem for someone else
 
-        cells = new Cell[X][];
-        for (int i = 0; i < X; i++) {
-            cells[i] = new Cell[Y];
-            for (int j = 0; j < Y; j++)
-                cells[i][j] = new Cell();
-        }
-
-
         games = __tournament.games();
         if (games == null) {
             throw new RuntimeException("Error:  Null game record list");
         }
 
         for (int game = 0; game < games.length; game++) {
+            seed = GameRandom.derive(tournamentSeed, GameRandom.TRIAL, 0, game);
+            moveRandom = new GameRandom(seed);
+            playerRandom = new PlayerRandom(
+                GameRandom.derive(seed, GameRandom.PLAYERS, 0, 0));
             population = 0;
             _playerlist = games[game].players();
             _numplayers = _playerlist.length;
             if (X * Y < _numplayers)
                 throw new RuntimeException("More players than Space on Grid");
-            for (int i = 0; i < X; i++) {
-                for (int j = 0; j < Y; j++) {
-                    cells[i][j].foodvalue = 0;
-                    cells[i][j].pw = null;
-                }
-            }
+            allocateGrid();
             OrigPlayers = new PlayerEntry[_numplayers];
+            GameRandom placement = new GameRandom(
+                GameRandom.derive(seed, GameRandom.PLACEMENT, 0, 0));
             for (int i = 0; i < _numplayers; i++) {
                 int x, y;
                 while (true) {
-                    x = _random.nextInt(X);
-                    y = _random.nextInt(Y);
-                    if (cells[x][y].pw == null)
+                    x = placement.nextInt(X);
+                    y = placement.nextInt(Y);
+                    if (playerType[cell(x, y)] == EMPTY)
                         break;
                 }
-                population++;
-                cells[x][y].pw = new PlayerWrapper(_playerlist[i]);
-                cells[x][y].pw.register(this, -1);
-                cells[x][y].foodvalue = 0;
-                cells[x][y].playertype = i;
-                OrigPlayers[i] = new PlayerEntry(_playerlist[i],
-                    cells[x][y].pw.name(), cells[x][y].pw.color());
-                ChangeEnergy(x, y, init_energy);
+                placeOrigPlayer(cell(x, y), i);
             }
 
             _currRound = 0;
@@ -439,15 +641,14 @@ public final class OrganismsGame extends IFCModel implements Constants {
     }
 
     void create(IFCConfiguration __config) {
-        System.out.println("==============================");
+        create(__config, seedOf(__config));
+    }
 
-        _random = ThreadLocalRandom.current();
+    void create(IFCConfiguration __config, long __seed) {
         _config = __config;
-
+        moveRandom = new GameRandom(__seed);
         fightResults = new HashMap<Class, FightResults>();
 
-
-        population = 0;
         _maxrounds = _config.numRounds();
         init_energy = _config.getInitEnergy();
         X = _config.getGridX();
@@ -459,6 +660,14 @@ public final class OrganismsGame extends IFCModel implements Constants {
         p = _config.getP();
         q = _config.getQ();
         s = _config.getS();
+        foodSampler = new FoodSampler(p, q, K);
+        foodKernel = FoodKernel.create(_config.foodKernel(), foodSampler, p,
+            q, K, u, M);
+        lazyFood = _config.lazyFood();
+        parallelMoves = _config.parallelMoves();
+        moveRules = _config.moveRules();
+        burnIn = FoodBurnIn.of(_config, _config.hasSeed() ? _config.seed() :
+            __seed);
 
         _classlist = _config.getClassList();
         _playerlist = _config.playerList();
@@ -475,41 +684,491 @@ public final class OrganismsGame extends IFCModel implements Constants {
 
         if (X * Y < _numplayers)
             throw new RuntimeException("More players than Space on Grid");
-        cells = new Cell[X][];
-        for (int i = 0; i < X; i++) {
-            cells[i] = new Cell[Y];
-            for (int j = 0; j < Y; j++)
-                cells[i][j] = new Cell();
+        allocateGrid();
+        System.out.println("==============================");
+        startTrial(__seed);
+    }
+
+    /**
+     * Starts the game over from round 0 with a new seed, as if newly created
+     * with the same configuration. The grid, its scratch space and the
+     * statistics are cleared in place rather than reallocated, so a worker
+     * can run trial after trial on one game.
+     */
+    void reset(long __seed) {
+        releaseAll();
+        int size = X * Y;
+        Arrays.fill(foodValue, base, base + size, 0);
+        Arrays.fill(energy, base, base + size, 0);
+        Arrays.fill(playerType, EMPTY);
+        Arrays.fill(externalState, 0);
+        Arrays.fill(moveDone, false);
+        Arrays.fill(organisms, null);
+        Arrays.fill(slot, 0);
+        occupied.clearAll();
+        hasFood.clearAll();
+        foodTiles.clear();
+        totalFood = 0;
+        Arrays.fill(extinctionTimes, 0);
+        Arrays.fill(energyWhileAlive, 0);
+        Arrays.fill(populationWhileAlive, 0);
+        Arrays.fill(endCounts, 0);
+        Arrays.fill(endEnergies, 0);
+        organismMoves = 0;
+        runNanos = 0;
+        roundList.clear();
+        startTrial(__seed);
+    }
+
+    /**
+     * Branches the game at the current round, to play out a different
+     * future from here: with another seed, and optionally other food rates
+     * ({@link #setFoodRates}) or another species ({@link #addSpecies}). The
+     * fork copies the grid, food and statistics; the organisms' own objects
+     * are shared until the fork first touches one, or this game is about to,
+     * when the fork copies it through {@link OrganismsPlayer#copy}. This
+     * game keeps its own objects and plays on as if never forked. A fork on
+     * this game's seed replays the game as it would have gone on.
+     *
+     * @param __seed The seed of the fork's draws from this round on
+     * @return The fork, detached from any GUI
+     * @throws UnsupportedOperationException if a species has no copy hook
+     */
+    public OrganismsGame fork(long __seed) {
+        for (PlayerEntry entry : OrigPlayers) {
+            if (!entry._wrapper.forkable())
+                throw new UnsupportedOperationException("Player " +
+                    entry._playerclass.getName() + " cannot be copied");
+        }
+        inheritAll();    // A fork shares only this game's own objects
+        OrganismsGame fork = new OrganismsGame(this, __seed);
+        if (lent == null) {
+            lent = new BitPlane(occupied);
+            forks = new ArrayList<>();
+        } else {
+            lent.or(occupied);
         }
-        food = new int[X][Y];
+        forks.add(new WeakReference<>(fork));
+        return fork;
+    }
+
+    /**
+     * Branches the game at the current round on its own seed
+     *
+     * @see #fork(long)
+     */
+    public OrganismsGame fork() {
+        return fork(seed);
+    }
 
+    private OrganismsGame(OrganismsGame parent, long __seed) {
+        roundList = new Vector<Round>(parent.roundList);
+        shouldGraph = false;
+        keepRounds = parent.keepRounds;
+        _config = parent._config;
+        _classlist = parent._classlist;
+        _playerlist = parent._playerlist;
+        _numplayers = parent._numplayers;
+        _currRound = parent._currRound;
+        _maxrounds = parent._maxrounds;
+        _state = parent._state;
+        population = parent.population;
+        init_energy = parent.init_energy;
+        X = parent.X;
+        Y = parent.Y;
+        M = parent.M;
+        K = parent.K;
+        s = parent.s;
+        v = parent.v;
+        u = parent.u;
+        p = parent.p;
+        q = parent.q;
+        seed = __seed;
+        moveRandom = new GameRandom(seed);
+        playerRandom = seed == parent.seed ? parent.playerRandom.copy() :
+            new PlayerRandom(
+                GameRandom.derive(seed, GameRandom.PLAYERS, _currRound, 0));
+        foodSampler = parent.foodSampler;
+        foodKernel = parent.foodKernel;
+        burnIn = parent.burnIn;
+        lazyFood = parent.lazyFood;
+        parallelMoves = parent.parallelMoves;
+        moveRules = parent.moveRules;
+
+        int size = X * Y;
+        base = 0;
+        foodValue = Arrays.copyOfRange(parent.foodValue, parent.base,
+            parent.base + size);
+        energy = Arrays.copyOfRange(parent.energy, parent.base,
+            parent.base + size);
+        playerType = parent.playerType.clone();
+        externalState = parent.externalState.clone();
+        moveDone = parent.moveDone.clone();
+        organisms = parent.organisms.clone();
+        slot = parent.slot.clone();
+        if (parent.population > 0) {
+            inherited = new BitPlane(parent.occupied);
+            inheritedCount = parent.population;
+        }
+        occupied = new BitPlane(parent.occupied);
+        hasFood = new BitPlane(parent.hasFood);
+        foodTiles = new FoodTiles(parent.foodTiles);
+        totalFood = parent.totalFood;
+        batch = new DecisionBatch(X, Y);
+
+        extinctionTimes = parent.extinctionTimes.clone();
+        energyWhileAlive = parent.energyWhileAlive.clone();
+        populationWhileAlive = parent.populationWhileAlive.clone();
+        endCounts = parent.endCounts.clone();
+        endEnergies = parent.endEnergies.clone();
+        organismMoves = parent.organismMoves;
+        runNanos = parent.runNanos;
+        stoppedBy = parent.stoppedBy;
+
+        fightResults = new HashMap<Class, FightResults>();
         OrigPlayers = new PlayerEntry[_numplayers];
         for (int i = 0; i < _numplayers; i++) {
-            int x, y;
-            while (true) {
-                x = _random.nextInt(X);
-                y = _random.nextInt(Y);
-                if (cells[x][y].pw == null)
+            PlayerEntry from = parent.OrigPlayers[i];
+            PlayerEntry entry = new PlayerEntry(from._wrapper.fork(this),
+                from._name, from._color);
+            entry._population = from._population;
+            entry._totalenergy = from._totalenergy;
+            entry.isExtinct = from.isExtinct;
+            OrigPlayers[i] = entry;
+            FightResults results = new FightResults();
+            FightResults was = parent.fightResults.get(from._playerclass);
+            results.attackWin = was.attackWin;
+            results.attackLoss = was.attackLoss;
+            results.defendWin = was.defendWin;
+            results.defendLoss = was.defendLoss;
+            fightResults.put(from._playerclass, results);
+        }
+        watchStopRules();
+    }
+
+    /**
+     * Makes sure that the organism object on {@code cell} is this game's
+     * alone, so that it may be asked to decide: a fork that still shares it
+     * with this game copies it first, and if it is still the parent's, this
+     * game copies it. Every organism is owned before it moves, so shared
+     * objects stay on the cells they had at the fork.
+     *
+     * @return The organism object
+     */
+    private OrganismsPlayer own(int cell) {
+        if (lent != null && lent.get(cell))
+            handOver(cell);
+        if (inherited != null)
+            return inherit(cell, null);
+        return organisms[cell];
+    }
+
+    /**
+     * Copies the organism object on {@code cell} for this game if it is
+     * still the parent's; called by the parent as well, with the object it
+     * is about to touch
+     *
+     * @param expected The parent's object, or null for whatever is there
+     * @return The organism object
+     */
+    private synchronized OrganismsPlayer inherit(int cell,
+                                                 OrganismsPlayer expected) {
+        if (inherited != null && inherited.get(cell) &&
+            (expected == null || organisms[cell] == expected)) {
+            if (organisms[cell] != null)
+                organisms[cell] = OrigPlayers[playerType[cell]]._wrapper
+                    .copy(organisms[cell]);
+            disinherit(cell);
+        }
+        return organisms[cell];
+    }
+
+    /**
+     * Forgets that the object on {@code cell} is the parent's
+     */
+    private void disinherit(int cell) {
+        inherited.clear(cell);
+        if (--inheritedCount == 0)
+            inherited = null;
+    }
+
+    /**
+     * Has every fork that may still share the object on {@code cell} copy
+     * it, before this game touches it
+     */
+    private void handOver(int cell) {
+        OrganismsPlayer player = organisms[cell];
+        for (Iterator<WeakReference<OrganismsGame>> it = forks.iterator();
+             it.hasNext(); ) {
+            OrganismsGame fork = it.next().get();
+            if (fork == null || fork.inherited == null)
+                it.remove();
+            else
+                fork.inherit(cell, player);
+        }
+        lent.clear(cell);
+        if (forks.isEmpty()) {
+            lent = null;
+            forks = null;
+        }
+    }
+
+    /**
+     * @return Whether the organism object on {@code cell} was the parent's,
+     *     which this game then forgets, rather than this game's to reuse
+     */
+    private boolean dropInherited(int cell) {
+        if (inherited == null)
+            return false;
+        synchronized (this) {
+            if (inherited == null || !inherited.get(cell))
+                return false;
+            disinherit(cell);
+            return true;
+        }
+    }
+
+    /**
+     * Copies every organism object that is still the parent's
+     */
+    private void inheritAll() {
+        for (int cell = occupied.nextSetBit(0);
+             cell >= 0 && inherited != null;
+             cell = occupied.nextSetBit(cell + 1))
+            inherit(cell, null);
+    }
+
+    /**
+     * Stops sharing organism objects with the parent and with forks, by
+     * copying every one that is still shared
+     */
+    private void releaseAll() {
+        inheritAll();
+        if (lent != null) {
+            for (int cell = lent.nextSetBit(0); cell >= 0;
+                 cell = lent.nextSetBit(cell + 1)) {
+                handOver(cell);
+                if (lent == null)
                     break;
             }
-            population++;
-            cells[x][y].pw = new PlayerWrapper(_playerlist[i]);
-            cells[x][y].pw.register(this, -1);
-            cells[x][y].foodvalue = 0;
+            lent = null;
+            forks = null;
+        }
+    }
+
+    /**
+     * Changes the food rates from the next round on, for a fork that
+     * explores them. Food on dormant tiles is brought up to date first.
+     */
+    public void setFoodRates(double __p, double __q) {
+        syncFood();
+        p = __p;
+        q = __q;
+        foodSampler = new FoodSampler(p, q, K);
+        foodKernel = FoodKernel.create(_config.foodKernel(), foodSampler, p,
+            q, K, u, M);
+    }
+
+    /**
+     * Places the founder of a new species on an empty cell, for a fork that
+     * explores an invasion. Its statistics count from the start of the
+     * game, as if it had been there, extinct, until now.
+     *
+     * @throws IllegalArgumentException if the cell is occupied
+     */
+    public void addSpecies(Class<?> __class, int x, int y) {
+        int cell = cell(x, y);
+        if (occupied.get(cell))
+            throw new IllegalArgumentException("Cell is occupied");
+        int ptype = _numplayers++;
+        _playerlist = Arrays.copyOf(_playerlist, _numplayers);
+        _playerlist[ptype] = __class;
+        OrigPlayers = Arrays.copyOf(OrigPlayers, _numplayers);
+        extinctionTimes = Arrays.copyOf(extinctionTimes, _numplayers);
+        energyWhileAlive = Arrays.copyOf(energyWhileAlive, _numplayers);
+        populationWhileAlive = Arrays.copyOf(populationWhileAlive,
+            _numplayers);
+        endCounts = Arrays.copyOf(endCounts, _numplayers);
+        endEnergies = Arrays.copyOf(endEnergies, _numplayers);
+        foodBands = null;    // Sized by species
+        placeOrigPlayer(cell, ptype);
+        fightResults.put(OrigPlayers[ptype]._playerclass, new FightResults());
+        watchStopRules();
+    }
+
+    /**
+     * Plays rounds until {@code round} rounds have been played in all, or
+     * the game ends
+     *
+     * @return Whether the game can go on
+     */
+    public boolean runUntil(int round) {
+        while (_currRound < round) {
+            if (!step())
+                return false;
+        }
+        return _state != _CFINISHED;
+    }
 
-            cells[x][y].playertype = i;
+    /**
+     * Seeds the game and places the founders on the empty grid
+     */
+    private void startTrial(long __seed) {
+        seed = __seed;
+        moveRandom.reseed(seed);
+        playerRandom = new PlayerRandom(
+            GameRandom.derive(seed, GameRandom.PLAYERS, 0, 0));
+        fightResults.clear();
+        population = 0;
+        if (burnIn != null)
+            totalFood += burnIn.plant(foodValue, base, hasFood);
 
-            OrigPlayers[i] = new PlayerEntry(_playerlist[i],
-                cells[x][y].pw.name(), cells[x][y].pw.color());
-            ChangeEnergy(x, y, init_energy);
+        OrigPlayers = new PlayerEntry[_numplayers];
+        GameRandom placement = new GameRandom(
+            GameRandom.derive(seed, GameRandom.PLACEMENT, 0, 0));
+        for (int i = 0; i < _numplayers; i++) {
+            int x, y;
+            while (true) {
+                x = placement.nextInt(X);
+                y = placement.nextInt(Y);
+                if (playerType[cell(x, y)] == EMPTY)
+                    break;
+            }
+            placeOrigPlayer(cell(x, y), i);
             fightResults.put(OrigPlayers[i]._playerclass, new FightResults());
         }
 
         _currRound = 0;
         _state = _CMOVING;
+        stoppedBy = null;
+        watchStopRules();
         //_history = new ArrayList();
     }
 
+    /**
+     * Starts watching the configuration's stop rules from this round on
+     */
+    private void watchStopRules() {
+        StopRule[] rules = _config.stopRules();
+        if (rules.length == 0) {
+            stopWatches = null;
+            return;
+        }
+        stopWatches = new StopRule.Watch[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            stopWatches[i] = rules[i].watch(_numplayers);
+        }
+        roundPopulation = new int[_numplayers];
+        roundEnergy = new int[_numplayers];
+    }
+
+    /**
+     * Ends the trial if one of its stop rules has fired this round
+     */
+    private void checkStopRules() {
+        for (int i = 0; i < _numplayers; i++) {
+            roundPopulation[i] = OrigPlayers[i]._population;
+            roundEnergy[i] = OrigPlayers[i]._totalenergy;
+        }
+        for (int i = 0; i < stopWatches.length; i++) {
+            if (stopWatches[i].settled(roundPopulation, roundEnergy)) {
+                stoppedBy = _config.stopRules()[i];
+                _state = _CFINISHED;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Allocates an empty X by Y grid
+     */
+    private void allocateGrid() {
+        int size = X * Y;
+        base = 0;
+        foodValue = new int[size];
+        playerType = new int[size];
+        energy = new int[size];
+        externalState = new int[size];
+        moveDone = new boolean[size];
+        organisms = new OrganismsPlayer[size];
+        occupied = new BitPlane(size);
+        hasFood = new BitPlane(size);
+        slot = new int[size];
+        batch = new DecisionBatch(X, Y);
+        foodTiles = new FoodTiles(X, Y);
+        foodBands = null;
+        movers = null;
+        totalFood = 0;
+        Arrays.fill(playerType, EMPTY);
+    }
+
+    /**
+     * Moves this game's food and energy into columns shared with the other
+     * trials of a {@link TrialBatch}, and shares the scratch space of the
+     * batch's first trial. The game keeps no history of rounds from then
+     * on, as nothing will display it.
+     *
+     * @param base Where this game's cells start in the columns
+     */
+    void joinBatch(int[] food, int[] energy, int base, OrganismsGame first) {
+        int size = X * Y;
+        System.arraycopy(this.foodValue, this.base, food, base, size);
+        System.arraycopy(this.energy, this.base, energy, base, size);
+        this.foodValue = food;
+        this.energy = energy;
+        this.base = base;
+        this.batch = first.batch;
+        keepRounds = false;
+        roundList.clear();
+    }
+
+    /**
+     * @return Whether each species is asked to move through a decider class
+     *     of its own, which the JIT can specialize to it
+     */
+    boolean speciesDeciders() {
+        return _config.speciesDeciders();
+    }
+
+    /**
+     * @return Whether {@link organisms.Stateless} species may be answered
+     *     from a cache of their decisions
+     */
+    boolean decisionCache() {
+        return _config.decisionCache();
+    }
+
+    /**
+     * @return The number of cells on the grid
+     */
+    int cellCount() {
+        return X * Y;
+    }
+
+    /**
+     * Places the founding organism of species {@code ptype} on an empty cell
+     * and creates the species' {@link PlayerEntry} from it
+     */
+    private void placeOrigPlayer(int cell, int ptype) {
+        PlayerWrapper wrapper = new PlayerWrapper(_playerlist[ptype], this);
+        int newSlot = wrapper.allocateSlot();
+        OrganismsPlayer player = wrapper.batched() ? null :
+            wrapper.newPlayer(-1);
+        population++;
+        playerType[cell] = ptype;
+        organisms[cell] = player;
+        slot[cell] = newSlot;
+        occupied.set(cell);
+        foodTiles.add(cell);
+        energy[base + cell] = 0;
+        externalState[cell] = wrapper.batched() ?
+            wrapper.born(newSlot, -1, -1) : wrapper.externalState(player, 0);
+        setFood(cell, 0);
+        OrigPlayers[ptype] = new PlayerEntry(wrapper, wrapper.name(player),
+            wrapper.color(player));
+        ChangeEnergy(cell, init_energy);
+    }
+
     void initializePanels() throws Exception {
         _control = new ControlPanel();
         _view = new ViewPanel();
@@ -648,9 +1307,106 @@ public final class OrganismsGame extends IFCModel implements Constants {
         }
         RET.setPlayerList(players);
 
+        readEngineOptions(properties, RET);
         return RET;
     }
 
+    /**
+     * Reads the optional engine settings, which change how the game is
+     * simulated but not its rules. Missing keys keep their defaults.
+     */
+    private static void readEngineOptions(Properties properties,
+                                          IFCConfiguration config) {
+        String value = properties.getProperty("LAZY_FOOD");
+        if (value != null) {
+            config.setLazyFood(Boolean.parseBoolean(value.trim()));
+        }
+        value = properties.getProperty("PARALLEL_MOVES");
+        if (value != null) {
+            config.setParallelMoves(Boolean.parseBoolean(value.trim()));
+        }
+        value = properties.getProperty("SPECIES_DECIDERS");
+        if (value != null) {
+            config.setSpeciesDeciders(Boolean.parseBoolean(value.trim()));
+        }
+        value = properties.getProperty("DECISION_CACHE");
+        if (value != null) {
+            config.setDecisionCache(Boolean.parseBoolean(value.trim()));
+        }
+        value = properties.getProperty("LOCKSTEP_TRIALS");
+        if (value != null) {
+            ParseValue pv = ParseValue.parseIntegerValue(value.trim(), 1,
+                Integer.MAX_VALUE);
+            if (!pv.isValid()) {
+                throw new RuntimeException(
+                    "Properties parameter out of range, LOCKSTEP_TRIALS");
+            }
+            config.setLockstepTrials(pv.value().intValue());
+        }
+        value = properties.getProperty("FOOD_KERNEL");
+        if (value != null) {
+            value = value.trim().toLowerCase(Locale.ROOT);
+            if (!value.equals(FoodKernel.SAMPLED) &&
+                !value.equals(FoodKernel.SCALAR) &&
+                !value.equals(FoodKernel.VECTOR)) {
+                throw new RuntimeException(
+                    "Properties parameter out of range, FOOD_KERNEL");
+            }
+            config.setFoodKernel(value);
+        }
+        value = properties.getProperty("ENGINE_REPORT");
+        if (value != null) {
+            config.setEngineReport(Boolean.parseBoolean(value.trim()));
+        }
+        value = properties.getProperty("SEED");
+        if (value != null && !value.trim().isEmpty()) {
+            config.setSeed(Long.parseLong(value.trim()));
+        }
+    }
+
+    /**
+     * Reads the optional {@code key=value} columns that may follow the name
+     * of a configuration row
+     */
+    private static void readRowOptions(String[] configuration,
+                                       IFCConfiguration config) {
+        for (int i = 13; i < configuration.length; i++) {
+            String option = configuration[i].trim();
+            if (option.isEmpty()) {
+                continue;
+            }
+            int split = option.indexOf('=');
+            String key = split < 0 ? option : option.substring(0, split).trim();
+            String value = split < 0 ? "" : option.substring(split + 1).trim();
+            switch (key) {
+                case "seed":
+                    config.setSeed(Long.parseLong(value));
+                    break;
+                case "rules":
+                    config.setMoveRules(MoveRules.parse(value));
+                    break;
+                case "burnin":
+                    ParseValue pv = ParseValue.parseIntegerValue(value, 0,
+                        Integer.MAX_VALUE);
+                    if (!pv.isValid()) {
+                        throw new RuntimeException(
+                            "Configuration option out of range, " + option);
+                    }
+                    config.setBurnIn(pv.value().intValue());
+                    break;
+                case "stop":
+                    StopRule[] rules = config.stopRules();
+                    rules = Arrays.copyOf(rules, rules.length + 1);
+                    rules[rules.length - 1] = StopRule.parse(value);
+                    config.setStopRules(rules);
+                    break;
+                default:
+                    throw new RuntimeException(
+                        "Unknown configuration option, " + option);
+            }
+        }
+    }
+
     public static IFCConfiguration getConfigFromCSVRow(String[] configuration,
                                                 Class[] classes) {
         IFCConfiguration RET = new Configuration();
@@ -763,6 +1519,8 @@ public final class OrganismsGame extends IFCModel implements Constants {
         }
         RET.setPlayerList(classes);
 
+        readEngineOptions(properties, RET);
+        readRowOptions(configuration, RET);
         return RET;
     }
 
@@ -805,6 +1563,21 @@ public final class OrganismsGame extends IFCModel implements Constants {
         return K;
     }
 
+    /**
+     * Hands out a random source for one organism. Call it from
+     * {@link OrganismsPlayer#register} and keep the result: each call splits
+     * off a new generator from the game's seed, so organisms that draw from
+     * their own generator are reproducible and never contend with each other.
+     * A copy of the organism for a fork of the game should take a
+     * {@link PlayerRandom#copy} of the generator rather than a new one, so
+     * that it draws as the original would.
+     *
+     * @return A new generator, for use by one organism only
+     */
+    public PlayerRandom random() {
+        return playerRandom.split();
+    }
+
     public void print(String __str) throws Exception {
         if (_registered) {
             _ui.print(__str);
@@ -829,7 +1602,7 @@ public final class OrganismsGame extends IFCModel implements Constants {
     //*
     //********************************************
     public void register(IFCUI __ui) throws Exception {
-        roundList = new Vector();
+        roundList = new Vector<Round>();
         _ui = __ui;
         _ui.register(this);
         _registered = true;
@@ -886,11 +1659,6 @@ public final class OrganismsGame extends IFCModel implements Constants {
         }
     }
 
-
-    boolean WithProb(double p) {
-        return ThreadLocalRandom.current().nextDouble() < p;
-    }
-
     int min(int a, int b) {
         return (a < b) ? a : b;
     }
@@ -899,32 +1667,213 @@ public final class OrganismsGame extends IFCModel implements Constants {
         return (a > b) ? a : b;
     }
 
+    int cell(int x, int y) {
+        return y * X + x;
+    }
+
+    /**
+     * What one band of the food phase changes outside its own cells: its
+     * generator, and the food and energy it adds, merged once it is done
+     */
+    private static final class FoodBand {
+        final GameRandom random = new GameRandom(0);
+        final int[] energy;    // Energy fed to each species
+        final int[] scratch = new int[FoodKernel.SCRATCH];
+        int food;
+
+        FoodBand(int species) {
+            energy = new int[species];
+        }
+    }
+
+    /**
+     * Generates food and feeds the organisms for the round. The grid is
+     * processed in bands, one row of food tiles each. Every tile draws from
+     * its own sub-stream and touches only its own cells, so the bands of big
+     * grids run in parallel. Adjacent bands may share a word of
+     * {@code hasFood}, so the even bands run first and then the odd ones.
+     */
     void preProcessGrid() {
-        for (int x = 0; x < X; x++) {
-            for (int y = 0; y < Y; y++) {
-                cells[x][y].movedone = false;
-                // Generate Food
-                if (cells[x][y].pw == null) {
-                    if (cells[x][y].foodvalue == 0) { // Generate with prob p
-                        cells[x][y].foodvalue = WithProb(p) ? 1 : 0;
-                    } else { // Double with prob q
-                        int newfood = 0;
-                        for (int i = 0; i < cells[x][y].foodvalue; i++)
-                            newfood += WithProb(q) ? 1 : 0;
-                        cells[x][y].foodvalue = min(K,
-                            cells[x][y].foodvalue + newfood);
+        if (foodBands == null) {
+            foodBands = new FoodBand[foodTiles.rows()];
+            for (int band = 0; band < foodBands.length; band++) {
+                foodBands[band] = new FoodBand(OrigPlayers.length);
+            }
+        }
+        if (X * Y >= MIN_PARALLEL_FOOD && foodBands.length > 1) {
+            int half = (foodBands.length + 1) / 2;
+            IntStream.range(0, half).parallel()
+                .forEach(i -> evolveBand(2 * i));
+            IntStream.range(0, foodBands.length / 2).parallel()
+                .forEach(i -> evolveBand(2 * i + 1));
+        } else {
+            for (int band = 0; band < foodBands.length; band++) {
+                evolveBand(band);
+            }
+        }
+        for (FoodBand band : foodBands) {
+            totalFood += band.food;
+            band.food = 0;
+            for (int ptype = 0; ptype < OrigPlayers.length; ptype++) {
+                OrigPlayers[ptype].AddEnergy(band.energy[ptype]);
+                band.energy[ptype] = 0;
+            }
+        }
+    }
+
+    private void evolveBand(int band) {
+        FoodBand scratch = foodBands[band];
+        int top = band * FoodTiles.TILE_SIZE;
+        int bottom = Math.min(Y, top + FoodTiles.TILE_SIZE);
+        for (int cell = occupied.nextSetBit(cell(0, top));
+             cell >= 0 && cell < cell(0, bottom);
+             cell = occupied.nextSetBit(cell + 1)) {
+            moveDone[cell] = false;
+        }
+        // Food that nothing can see this round may be left for later, but
+        // only when no one is watching the whole grid
+        boolean lazy = lazyFood && !_registered && !shouldGraph;
+        int first = band * foodTiles.cols();
+        if (foodKernel != null && !lazy) {
+            // Every tile is due, so the kernel can sweep whole rows
+            for (int tile = first; tile < first + foodTiles.cols(); tile++) {
+                scratch.random.reseed(seed, GameRandom.CATCH_UP, _currRound,
+                    tile);
+                catchUpTile(tile, _currRound - 1, scratch);
+                foodTiles.setLastRound(tile, _currRound);
+            }
+            evolveRows(top, bottom, scratch);
+            return;
+        }
+        for (int tile = first; tile < first + foodTiles.cols(); tile++) {
+            if (!lazy || foodTiles.needed(tile)) {
+                scratch.random.reseed(seed, GameRandom.CATCH_UP, _currRound,
+                    tile);
+                catchUpTile(tile, _currRound - 1, scratch);
+                scratch.random.reseed(seed, GameRandom.FOOD, _currRound, tile);
+                evolveTile(tile, scratch);
+                foodTiles.setLastRound(tile, _currRound);
+            }
+        }
+    }
+
+    private void setFood(int cell, int food) {
+        totalFood += putFood(cell, food);
+    }
+
+    /**
+     * Sets the food on a cell without counting it in {@code totalFood}
+     *
+     * @return The change in food
+     */
+    private int putFood(int cell, int food) {
+        int change = food - foodValue[base + cell];
+        foodValue[base + cell] = food;
+        if (food > 0) {
+            hasFood.set(cell);
+        } else {
+            hasFood.clear(cell);
+        }
+        return change;
+    }
+
+    /**
+     * Runs one round of food generation and feeding on a tile
+     */
+    private void evolveTile(int tile, FoodBand band) {
+        GameRandom random = band.random;
+        int left = foodTiles.left(tile);
+        int top = foodTiles.top(tile);
+        int width = foodTiles.width(tile);
+        int height = foodTiles.height(tile);
+        if (foodKernel != null) {
+            long key = FoodKernel.key(seed, _currRound);
+            for (int y = top; y < top + height; y++) {
+                band.food += foodKernel.evolve(foodValue, energy, base,
+                    playerType, hasFood, cell(left, y), cell(left + width, y),
+                    key, band.energy, band.scratch);
+            }
+            return;
+        }
+        for (int y = top; y < top + height; y++) {
+            // Cells with neither food nor an organism have nothing to do
+            int end = cell(left + width, y);
+            for (int cell = hasFood.nextSetBit(occupied, cell(left, y));
+                 cell >= 0 && cell < end;
+                 cell = hasFood.nextSetBit(occupied, cell + 1)) {
+                if (!occupied.get(cell)) {
+                    if (foodValue[base + cell] > 0) { // Each unit doubles with prob q
+                        band.food += putFood(cell,
+                            foodSampler.grow(foodValue[base + cell], random));
                     }
                 } else { // Feed the Organisms
-                    if (cells[x][y].foodvalue > 0) {
-                        int currE = cells[x][y].pw.energy();
+                    if (foodValue[base + cell] > 0) {
+                        int currE = energy[base + cell];
                         if (currE + u <= M) {
-                            ChangeEnergy(x, y, currE + u);
-                            cells[x][y].foodvalue--;
+                            energy[base + cell] = currE + u;
+                            band.energy[playerType[cell]] += u;
+                            band.food += putFood(cell, foodValue[base + cell] - 1);
                         }
                     }
                 }
             }
         }
+        // Generate Food on empty cells with prob p. Every cell gets a trial,
+        // but only the successes are visited; the ones that land on an
+        // occupied or non-empty cell are dropped. Nothing above empties an
+        // unoccupied cell, so this sees the same cells as before the loop.
+        int area = width * height;
+        for (int i = foodSampler.skip(random); i < area;
+             i += foodSampler.skip(random) + 1) {
+            int cell = cell(left + i % width, top + i / width);
+            if (!occupied.get(cell) && !hasFood.get(cell)) {
+                band.food += putFood(cell, 1);
+            }
+        }
+    }
+
+    /**
+     * Runs one round of food generation and feeding on rows {@code top} to
+     * {@code bottom - 1} with the food kernel, which visits every cell
+     */
+    private void evolveRows(int top, int bottom, FoodBand band) {
+        band.food += foodKernel.evolve(foodValue, energy, base, playerType,
+            hasFood, cell(0, top), cell(0, bottom),
+            FoodKernel.key(seed, _currRound), band.energy, band.scratch);
+    }
+
+    /**
+     * Evolves the food on a dormant tile through every round it missed, up
+     * to and including {@code round}. A dormant tile holds no organisms.
+     */
+    private void catchUpTile(int tile, int round, FoodBand band) {
+        int missed = round - foodTiles.lastRound(tile);
+        if (missed <= 0) {
+            return;
+        }
+        int left = foodTiles.left(tile);
+        int top = foodTiles.top(tile);
+        for (int y = top; y < top + foodTiles.height(tile); y++) {
+            for (int cell = cell(left, y);
+                 cell < cell(left + foodTiles.width(tile), y); cell++) {
+                band.food += putFood(cell, foodSampler.catchUp(
+                    foodValue[base + cell], missed, band.random));
+            }
+        }
+        foodTiles.setLastRound(tile, round);
+    }
+
+    /**
+     * Brings every dormant tile up to the last completed round, so that the
+     * whole grid can be read
+     */
+    void syncFood() {
+        FoodBand band = new FoodBand(0);
+        for (int tile = 0; tile < foodTiles.count(); tile++) {
+            band.random.reseed(seed, GameRandom.CATCH_UP, _currRound, tile);
+            catchUpTile(tile, _currRound - 1, band);
+        }
+        totalFood += band.food;
     }
 
     // TODO: deprecate
@@ -933,7 +1882,7 @@ public final class OrganismsGame extends IFCModel implements Constants {
         for (int i = 0; i < foodpresent.length; i++) {
             int x1 = (X + x + _CXTrans[i]) % X;
             int y1 = (Y + y + _CYTrans[i]) % Y;
-            foodpresent[i] = cells[x1][y1].foodvalue != 0;
+            foodpresent[i] = hasFood.get(cell(x1, y1));
         }
         return foodpresent;
     }
@@ -944,64 +1893,490 @@ public final class OrganismsGame extends IFCModel implements Constants {
         for (int i = 0; i < enemypresent.length; i++) {
             int x1 = (X + x + _CXTrans[i]) % X;
             int y1 = (Y + y + _CYTrans[i]) % Y;
-            enemypresent[i] = (cells[x1][y1].pw == null) ? (-1) :
-                (cells[x1][y1].pw.getExternalState());
+            enemypresent[i] = getVisibleState(cell(x1, y1));
         }
         return enemypresent;
     }
 
-    void ChangeEnergy(int x, int y, int finalE) {
-        int orig = cells[x][y].pw.energy();
-        OrigPlayers[cells[x][y].playertype].AddEnergy(finalE - orig);
-        cells[x][y].pw.setEnergy(finalE);
+    void ChangeEnergy(int cell, int finalE) {
+        int orig = energy[base + cell];
+        OrigPlayers[playerType[cell]].AddEnergy(finalE - orig);
+        energy[base + cell] = finalE;
     }
 
-    void KillAmoeba(int x, int y) {
-        int origenergy = cells[x][y].pw.energy();
-        ChangeEnergy(x, y, 0);
-        OrigPlayers[cells[x][y].playertype].AddPop(-1);
+    void KillAmoeba(int cell) {
+        ChangeEnergy(cell, 0);
+        PlayerWrapper wrapper = OrigPlayers[playerType[cell]]._wrapper;
+        if (wrapper.batched())
+            wrapper.died(slot[cell]);
+        wrapper.freeSlot(slot[cell]);
+        if (lent != null && lent.get(cell))
+            handOver(cell);
+        if (!dropInherited(cell))
+            wrapper.recycle(organisms[cell]);
+        OrigPlayers[playerType[cell]].AddPop(-1);
         population--;
-        cells[x][y].pw = null;
+        playerType[cell] = EMPTY;
+        organisms[cell] = null;
+        occupied.clear(cell);
+        foodTiles.remove(cell);
         //println("\tKilling Amoeba at cell " + x + ", " + y);
     }
 
-    void ShiftAmoeba(int x, int y, int x1, int y1) {
-        cells[x1][y1].playertype = cells[x][y].playertype;
-        cells[x1][y1].pw = cells[x][y].pw;
-        cells[x][y].pw = null;
+    void ShiftAmoeba(int from, int to) {
+        playerType[to] = playerType[from];
+        organisms[to] = organisms[from];
+        slot[to] = slot[from];
+        energy[base + to] = energy[base + from];
+        externalState[to] = externalState[from];
+        playerType[from] = EMPTY;
+        organisms[from] = null;
+        energy[base + from] = 0;
+        occupied.move(from, to);
+        foodTiles.move(from, to);
     }
 
-    void NewAmoeba(int x, int y, int ptype, int init_energy, int key) {
-        cells[x][y].playertype = ptype;
-        cells[x][y].pw = new PlayerWrapper(OrigPlayers[ptype].playerclass());
-        cells[x][y].pw.register(this, key);
-        ChangeEnergy(x, y, init_energy);
+    void NewAmoeba(int cell, int parent, int init_energy, int key) {
+        int ptype = playerType[parent];
+        PlayerWrapper wrapper = OrigPlayers[ptype]._wrapper;
+        int newSlot = wrapper.allocateSlot();
+        OrganismsPlayer player = wrapper.batched() ? null :
+            wrapper.newPlayer(key);
+        playerType[cell] = ptype;
+        organisms[cell] = player;
+        slot[cell] = newSlot;
+        occupied.set(cell);
+        foodTiles.add(cell);
+        energy[base + cell] = 0;
+        externalState[cell] = wrapper.batched() ?
+            wrapper.born(newSlot, slot[parent], key) :
+            wrapper.externalState(player, 0);
+        ChangeEnergy(cell, init_energy);
         OrigPlayers[ptype].AddPop(1);
         population++;
     }
 
-    void processMove(int x, int y, Move move) {
+    /**
+     * Packs what the organism on {@code cell} sees
+     */
+    private long observe(int cell) {
+        int x = cell % X;
+        int y = cell / X;
+        int north = getNorth(x, y);
+        int south = getSouth(x, y);
+        int east = getEast(x, y);
+        int west = getWest(x, y);
+        return Packed.observation(foodValue[base + cell],
+            energy[base + cell],
+            hasFood.get(north),
+            hasFood.get(east),
+            hasFood.get(south),
+            hasFood.get(west),
+            getVisibleState(north),
+            getVisibleState(east),
+            getVisibleState(south),
+            getVisibleState(west));
+    }
+
+    /**
+     * Moves every organism in row-major order, each deciding at its turn.
+     * Only occupied cells are visited. Organisms that move or are born ahead
+     * of the cursor are marked moveDone, so reading the live set is safe.
+     */
+    private void moveInTurn() {
+        for (int cell = occupied.nextSetBit(0); cell >= 0;
+             cell = occupied.nextSetBit(cell + 1)) {
+            if (moveDone[cell])
+                continue;
+            OrganismsPlayer player = own(cell);
+            PlayerWrapper wrapper = OrigPlayers[playerType[cell]]._wrapper;
+            if (wrapper.interactive(player))
+                continue;    // Interactive players move through the board
+            long decision = wrapper.decideCached(player, observe(cell));
+            externalState[cell] = wrapper.externalState(player,
+                externalState[cell]);
+            processMove(cell % X, cell / X, decision);
+        }
+    }
+
+    /**
+     * Moves every organism at once. Each decides from the grid as it stood
+     * at the start of the round, and its new external state is buffered so
+     * that the others do not see it. A move or birth may only go to a cell
+     * that was empty at the start of the round; when several organisms
+     * claim the same cell, the one with the most energy gets it, and ties go
+     * to a per-round draw. The losers stay put. Deciding and settling
+     * claims only read the grid, so both may run in parallel; the outcomes
+     * are then carried out in row-major order.
+     */
+    private void moveSimultaneously() {
+        if (movers == null) {
+            movers = new int[X * Y];
+            pendingDecision = new long[X * Y];
+            pendingState = new int[X * Y];
+            outcome = new byte[X * Y];
+        }
+        moverCount = 0;
+        for (int cell = occupied.nextSetBit(0); cell >= 0;
+             cell = occupied.nextSetBit(cell + 1)) {
+            pendingDecision[cell] = Packed.STAY_PUT;
+            pendingState[cell] = externalState[cell];
+            if (!OrigPlayers[playerType[cell]]._wrapper.interactive(
+                own(cell)))
+                movers[moverCount++] = cell;
+        }
+
+        for (int ptype = 0; ptype < OrigPlayers.length; ptype++) {
+            if (OrigPlayers[ptype]._wrapper.batched())
+                decideSpecies(ptype);
+        }
+        if (parallelMoves && moverCount >= MIN_PARALLEL_MOVES) {
+            IntStream.range(0, moverCount).parallel()
+                .forEach(i -> decidePending(i, false));
+        } else {
+            for (int i = 0; i < moverCount; i++) {
+                decidePending(i, true);
+            }
+        }
+
+        if (moverCount >= MIN_PARALLEL_CLAIMS) {
+            IntStream.range(0, moverCount).parallel()
+                .forEach(i -> outcome[movers[i]] = settle(movers[i]));
+        } else {
+            for (int i = 0; i < moverCount; i++) {
+                outcome[movers[i]] = settle(movers[i]);
+            }
+        }
+
+        for (int i = 0; i < moverCount; i++) {
+            int cell = movers[i];
+            long decision = pendingDecision[cell];
+            externalState[cell] = pendingState[cell];
+            int currE = energy[base + cell];
+            switch (outcome[cell]) {
+                case STAYS:
+                    if (currE - s <= 0)
+                        KillAmoeba(cell);
+                    else
+                        ChangeEnergy(cell, currE - s);
+                    break;
+                case MOVES:
+                    ChangeEnergy(cell, currE - v);
+                    ShiftAmoeba(cell, target(cell, Packed.action(decision)));
+                    break;
+                case BEARS:
+                    currE -= v;
+                    ChangeEnergy(cell, currE / 2);
+                    NewAmoeba(target(cell, Packed.childPosition(decision)),
+                        cell, currE - (currE / 2), Packed.childKey(decision));
+                    break;
+                default:
+                    KillAmoeba(cell);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Decides for the organism {@code movers[i]} of a player with its own
+     * object, leaving the grid untouched
+     *
+     * @param cached Whether the species' decision cache may answer, which
+     *     only the game's own thread may use
+     */
+    private void decidePending(int i, boolean cached) {
+        int cell = movers[i];
+        PlayerWrapper wrapper = OrigPlayers[playerType[cell]]._wrapper;
+        if (wrapper.batched())
+            return;
+        OrganismsPlayer player = organisms[cell];
+        long observation = observe(cell);
+        pendingDecision[cell] = cached ?
+            wrapper.decideCached(player, observation) :
+            wrapper.decide(player, observation);
+        pendingState[cell] = wrapper.externalState(player,
+            externalState[cell]);
+    }
+
+    /**
+     * Asks a batched species to decide for all of its organisms, as many at
+     * a time as a {@link DecisionBatch} holds
+     */
+    private void decideSpecies(int ptype) {
+        PlayerWrapper wrapper = OrigPlayers[ptype]._wrapper;
+        int[] group = batch.groupIndex;    // Holds cells here
+        int i = 0;
+        while (i < moverCount) {
+            int count = 0;
+            for (; i < moverCount && count < DecisionBatch.MAX_SIZE; i++) {
+                int cell = movers[i];
+                if (playerType[cell] != ptype)
+                    continue;
+                group[count] = cell;
+                batch.groupSlots[count] = slot[cell];
+                batch.groupObservations[count] = observe(cell);
+                batch.groupDecisions[count] = Packed.STAY_PUT;
+                batch.groupStates[count] = externalState[cell];
+                count++;
+            }
+            if (count == 0 || !wrapper.decide(count, batch.groupSlots,
+                batch.groupObservations, batch.groupDecisions,
+                batch.groupStates))
+                continue;
+            for (int k = 0; k < count; k++) {
+                int state = batch.groupStates[k];
+                pendingDecision[group[k]] = batch.groupDecisions[k];
+                if (state >= Constants.MIN_EXTERNAL_STATE &&
+                    state <= Constants.MAX_EXTERNAL_STATE)
+                    pendingState[group[k]] = state;
+            }
+        }
+    }
+
+    /**
+     * @return The cell next to {@code cell} in the given direction, or -1
+     *     if the action is not a direction
+     */
+    private int target(int cell, Constants.Action direction) {
+        switch (direction) {
+            case WEST:
+            case EAST:
+            case NORTH:
+            case SOUTH:
+                int x = (X + cell % X + _CXTrans[direction.intValue()]) % X;
+                int y = (Y + cell / X + _CYTrans[direction.intValue()]) % Y;
+                return cell(x, y);
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * @return The empty cell that the organism on {@code cell} moves or
+     *     gives birth onto, if it has the energy to, or -1
+     */
+    private int claim(int cell) {
+        long decision = pendingDecision[cell];
+        int there;
+        switch (Packed.action(decision)) {
+            case REPRODUCE:
+                if (energy[base + cell] - v <= 1)
+                    return -1;
+                there = target(cell, Packed.childPosition(decision));
+                break;
+            case STAY_PUT:
+                return -1;
+            default:
+                if (energy[base + cell] - v <= 0)
+                    return -1;
+                there = target(cell, Packed.action(decision));
+                break;
+        }
+        return there >= 0 && !occupied.get(there) ? there : -1;
+    }
+
+    /**
+     * Settles what the organism on {@code cell} does this round, against
+     * every other organism claiming the same cell. Reads the grid only.
+     */
+    private byte settle(int cell) {
+        long decision = pendingDecision[cell];
+        Constants.Action action = Packed.action(decision);
+        if (action == Constants.Action.REPRODUCE &&
+            energy[base + cell] - v <= 1)
+            return DIES;
+        int there = claim(cell);
+        if (there < 0) {
+            // Moving onto an empty cell without the energy for it is fatal
+            int to = action == Constants.Action.REPRODUCE ? -1 :
+                target(cell, action);
+            return to >= 0 && !occupied.get(to) ? DIES : STAYS;
+        }
+        int x = there % X;
+        int y = there / X;
+        if (outbids(getNorth(x, y), cell, there) ||
+            outbids(getEast(x, y), cell, there) ||
+            outbids(getSouth(x, y), cell, there) ||
+            outbids(getWest(x, y), cell, there))
+            return STAYS;
+        return action == Constants.Action.REPRODUCE ? BEARS : MOVES;
+    }
+
+    /**
+     * @return Whether the organism on {@code rival}, if any, also claims
+     *     {@code there} and wins it over the organism on {@code cell}
+     */
+    private boolean outbids(int rival, int cell, int there) {
+        return rival != cell && occupied.get(rival) &&
+            claim(rival) == there && outranks(rival, cell);
+    }
+
+    /**
+     * @return Whether the organism on {@code a} wins a claim against the one
+     *     on {@code b}
+     */
+    private boolean outranks(int a, int b) {
+        if (energy[base + a] != energy[base + b])
+            return energy[base + a] > energy[base + b];
+        long drawA = GameRandom.derive(seed, GameRandom.CLAIMS, _currRound, a);
+        long drawB = GameRandom.derive(seed, GameRandom.CLAIMS, _currRound, b);
+        return drawA != drawB ? drawA > drawB : a < b;
+    }
+
+    /**
+     * Moves every organism in row-major order, a window at a time, letting
+     * the ready organisms of each window decide ahead of their turn
+     */
+    private void moveInWindows() {
+        int cell = occupied.nextSetBit(0);
+        while (cell >= 0) {
+            cell = collectWindow(cell);
+            decideReady();
+            commitWindow();
+            if (cell >= 0)
+                cell = occupied.nextSetBit(cell);
+        }
+    }
+
+    /**
+     * Fills the window with the organisms still to move from {@code cell} on
+     *
+     * @return The first cell after the window, or -1 past the last one;
+     *     moves in the window may empty it before the next window starts
+     */
+    private int collectWindow(int cell) {
+        batch.clear();
+        for (; cell >= 0 && !batch.full();
+             cell = occupied.nextSetBit(cell + 1)) {
+            if (moveDone[cell])
+                continue;
+            int ptype = playerType[cell];
+            if (OrigPlayers[ptype]._wrapper.interactive(own(cell)))
+                continue;    // Interactive players move through the board
+            batch.add(cell, ptype);
+        }
+        return cell;
+    }
+
+    /**
+     * Decides the ready organisms of the window ahead of their turn: each
+     * batched species in one call, and with parallel moves on, the other
+     * players on worker threads. Nothing on the grid changes until
+     * {@link #commitWindow}, so the organisms can be observed in any order.
+     */
+    private void decideReady() {
+        for (int ptype = 0; ptype < OrigPlayers.length; ptype++) {
+            if (!OrigPlayers[ptype]._wrapper.batched())
+                continue;
+            int count = 0;
+            for (int i = 0; i < batch.size; i++) {
+                if (batch.ready[i] && batch.species[i] == ptype)
+                    batch.groupIndex[count++] = i;
+            }
+            if (count > 0)
+                decideGroup(ptype, count);
+        }
+        if (parallelMoves && batch.readyCount >= MIN_PARALLEL_MOVES) {
+            IntStream.range(0, batch.size).parallel().forEach(i -> {
+                if (batch.ready[i] && !batch.decided[i])
+                    decideOne(i, false);
+            });
+        }
+    }
+
+    /**
+     * Carries out the window's decisions in row-major order. Organisms that
+     * were not ready decide now, seeing every move before theirs.
+     */
+    private void commitWindow() {
+        for (int i = 0; i < batch.size; i++) {
+            int cell = batch.cells[i];
+            if (!batch.decided[i]) {
+                // Moved, born or killed by an earlier move of the window
+                if (!occupied.get(cell) || moveDone[cell])
+                    continue;
+                if (OrigPlayers[batch.species[i]]._wrapper.batched()) {
+                    batch.groupIndex[0] = i;
+                    decideGroup(batch.species[i], 1);
+                } else {
+                    decideOne(i, true);
+                }
+            }
+            externalState[cell] = batch.states[i];
+            processMove(cell % X, cell / X, batch.decisions[i]);
+        }
+    }
+
+    /**
+     * Decides the window entry {@code i} of a player with its own object
+     *
+     * @param cached Whether the species' decision cache may answer
+     */
+    private void decideOne(int i, boolean cached) {
+        int cell = batch.cells[i];
+        OrganismsPlayer player = organisms[cell];
+        PlayerWrapper wrapper = OrigPlayers[batch.species[i]]._wrapper;
+        long observation = observe(cell);
+        batch.decisions[i] = cached ?
+            wrapper.decideCached(player, observation) :
+            wrapper.decide(player, observation);
+        batch.states[i] = wrapper.externalState(player, externalState[cell]);
+        batch.decided[i] = true;
+    }
+
+    /**
+     * Asks a batched species to decide the window entries listed in
+     * {@code batch.groupIndex}
+     */
+    private void decideGroup(int ptype, int count) {
+        for (int k = 0; k < count; k++) {
+            int cell = batch.cells[batch.groupIndex[k]];
+            batch.groupSlots[k] = slot[cell];
+            batch.groupObservations[k] = observe(cell);
+            batch.groupDecisions[k] = Packed.STAY_PUT;
+            batch.groupStates[k] = externalState[cell];
+        }
+        boolean answered = OrigPlayers[ptype]._wrapper.decide(count,
+            batch.groupSlots, batch.groupObservations, batch.groupDecisions,
+            batch.groupStates);
+        for (int k = 0; k < count; k++) {
+            int i = batch.groupIndex[k];
+            int state = batch.groupStates[k];
+            boolean valid = answered &&
+                state >= Constants.MIN_EXTERNAL_STATE &&
+                state <= Constants.MAX_EXTERNAL_STATE;
+            batch.decisions[i] = answered ?
+                batch.groupDecisions[k] : Packed.STAY_PUT;
+            batch.states[i] = valid ? state : externalState[batch.cells[i]];
+            batch.decided[i] = true;
+        }
+    }
+
+    void processMove(int x, int y, long decision) {
         int currE;
         int x1, y1;
-        if (move == null)
-            move = Move.movement(STAY_PUT);
-        switch (move.getAction()) {
+        int here = cell(x, y);
+        int there;
+        switch (Packed.action(decision)) {
             case STAY_PUT:
-                currE = cells[x][y].pw.energy();
+                currE = energy[base + here];
                 if (currE - s <= 0)
-                    KillAmoeba(x, y);
+                    KillAmoeba(here);
                 else {
-                    ChangeEnergy(x, y, currE - s);
-                    cells[x][y].movedone = true;
+                    ChangeEnergy(here, currE - s);
+                    moveDone[here] = true;
                 }
                 break;
             case WEST:
             case EAST:
             case NORTH:
             case SOUTH:
-                x1 = (X + x + _CXTrans[move.getAction().intValue()]) % X;
-                y1 = (Y + y + _CYTrans[move.getAction().intValue()]) % Y;
-                if (cells[x1][y1].pw != null) // Cell is not Empty
+                x1 = (X + x + _CXTrans[Packed.action(decision).intValue()]) %
+                    X;
+                y1 = (Y + y + _CYTrans[Packed.action(decision).intValue()]) %
+                    Y;
+                there = cell(x1, y1);
+                if (occupied.get(there)) // Cell is not Empty
                 {
 
                     if (fightingAllowed) {
@@ -1012,30 +2387,28 @@ public final class OrganismsGame extends IFCModel implements Constants {
                         System.out.println("FIGHT!");
 
                         // check that they're not from the same species?
-                        PlayerWrapper attacker = cells[x][y].pw;
-                        PlayerWrapper defender = cells[x1][y1].pw;
-
-                        Class attackerClass = attacker.playerClass();
-                        Class defenderClass = defender.playerClass();
+                        Class attackerClass =
+                            OrigPlayers[playerType[here]].playerclass();
+                        Class defenderClass =
+                            OrigPlayers[playerType[there]].playerclass();
                         //System.out.println("attacker=" + attackerClass + ";
                         // defender=" + defenderClass);
                         if (attackerClass.equals(defenderClass)) {
                             //System.out.println("Cannibalism!");
-                            move = Move.movement(STAY_PUT);
-                            processMove(x, y, move);
+                            processMove(x, y, Packed.STAY_PUT);
                             break;
                         }
 
                         // get the energy level for each player
-                        int attackerEnergy = attacker.energy();
-                        int defenderEnergy = defender.energy();
+                        int attackerEnergy = energy[base + here];
+                        int defenderEnergy = energy[base + there];
                         //System.out.println("attacker=" + attackerEnergy +
                         // "; defender=" + defenderEnergy);
 
                         // determine winner and loser
                         int totalEnergy = attackerEnergy + defenderEnergy;
 
-                        int random = (int) (Math.random() * totalEnergy);
+                        int random = moveRandom.nextInt(totalEnergy);
                         //System.out.println("random=" + random);
 
                         if (random < attackerEnergy) {
@@ -1047,10 +2420,9 @@ public final class OrganismsGame extends IFCModel implements Constants {
                             fr.attackWin++;
                             fr = fightResults.get(defenderClass);
                             fr.defendLoss++;
-                            KillAmoeba(x1, y1);
-                            cells[x1][y1].pw = null;
+                            KillAmoeba(there);
                             processMove(x, y,
-                                move); // now when we do the move, the spot
+                                decision); // now when we do the move, the spot
                             // will be empty
                         } else {
                             // defender wins
@@ -1061,59 +2433,57 @@ public final class OrganismsGame extends IFCModel implements Constants {
                             fr.defendWin++;
                             fr = fightResults.get(attackerClass);
                             fr.attackLoss++;
-                            KillAmoeba(x, y);
+                            KillAmoeba(here);
                         }
                     } else {
-                        move = Move.movement(STAY_PUT);
-                        processMove(x, y, move);
+                        processMove(x, y, Packed.STAY_PUT);
                     }
                 } else {
-                    currE = cells[x][y].pw.energy();
+                    currE = energy[base + here];
                     if (currE - v <= 0)
-                        KillAmoeba(x, y);
+                        KillAmoeba(here);
                     else {
-                        ChangeEnergy(x, y, currE - v);
-                        ShiftAmoeba(x, y, x1, y1);
-                        cells[x1][y1].movedone = true;
+                        ChangeEnergy(here, currE - v);
+                        ShiftAmoeba(here, there);
+                        moveDone[there] = true;
                     }
                 }
                 break;
             case REPRODUCE:
-                currE = cells[x][y].pw.energy();
+                currE = energy[base + here];
                 if (currE - v <= 1)
-                    KillAmoeba(x, y);
+                    KillAmoeba(here);
                 else {
-                    switch (move.getChildPosition()) {
+                    Constants.Action position =
+                        Packed.childPosition(decision);
+                    switch (position) {
                         case WEST:
                         case EAST:
                         case NORTH:
                         case SOUTH:
-                            x1 = (X + x + _CXTrans[move.getChildPosition()
-                                .intValue()]) % X;
-                            y1 = (Y + y + _CYTrans[move.getChildPosition()
-                                .intValue()]) % Y;
-                            if (cells[x1][y1].pw != null) {
-                                move.setAction(STAY_PUT);
-                                processMove(x, y, move);
+                            x1 = (X + x + _CXTrans[position.intValue()]) % X;
+                            y1 = (Y + y + _CYTrans[position.intValue()]) % Y;
+                            there = cell(x1, y1);
+                            if (occupied.get(there)) {
+                                processMove(x, y, Packed.STAY_PUT);
                             } else {
                                 currE -= v;
-                                ChangeEnergy(x, y, currE / 2);
-                                NewAmoeba(x1, y1, cells[x][y].playertype,
-                                    currE - (currE / 2), move.getChildKey());
-                                cells[x][y].movedone = true;
-                                cells[x1][y1].movedone = true;
+                                ChangeEnergy(here, currE / 2);
+                                NewAmoeba(there, here,
+                                    currE - (currE / 2),
+                                    Packed.childKey(decision));
+                                moveDone[here] = true;
+                                moveDone[there] = true;
                             }
                             break;
                         default:
-                            move.setAction(STAY_PUT);
-                            processMove(x, y, move);
+                            processMove(x, y, Packed.STAY_PUT);
                             break;
                     }
                 }
                 break;
             default:
-                move.setAction(STAY_PUT);
-                processMove(x, y, move);
+                processMove(x, y, Packed.STAY_PUT);
                 break;
         }
     }
@@ -1124,26 +2494,15 @@ public final class OrganismsGame extends IFCModel implements Constants {
     //*
     //********************************************
 
-    private boolean step() {
-
-        Move _move;
+    boolean step() {
 
         // ------------------------------------------------------
         // keep track of board state this round
         //	System.out.println("step called; round="+_currRound);
-        {
-            int totalFoodAvailable = 0;
-
-            // cound up food
-            for (int i = 0; i < _config.getGridX(); i++) {
-                for (int j = 0; j < _config.getGridY(); j++) {
-                    totalFoodAvailable += cells[i][j].foodvalue;
-                }
-            }
-
+        if (keepRounds) {
             Round round = new Round(OrigPlayers.length,
                 _currRound,
-                totalFoodAvailable * u);
+                totalFood * u);
 
             for (int i = 0; i < OrigPlayers.length; i++) {
                 round.addPlayerData(i,
@@ -1174,7 +2533,7 @@ public final class OrganismsGame extends IFCModel implements Constants {
 	// update the int array with all the food
 	for (int i = 0; i < _config.GridX(); i++) {
 		for (int j = 0; j < _config.GridY(); j++) {
-			food[i][j] = cells[i][j].foodvalue;
+			food[i][j] = foodValue[base + cell(i, j)];
 			//System.out.print(food[i][j]+"-");
 		}
 		//System.out.println();
@@ -1198,45 +2557,20 @@ public final class OrganismsGame extends IFCModel implements Constants {
                     break;
                 }
                 preProcessGrid();
+                moveRandom.reseed(seed, GameRandom.MOVES, _currRound, 0);
                 //				    println("------ Round " + _currRound + "
                 //				    ------");
-                for (int y = 0; y < Y; y++) {
-                    for (int x = 0; x < X; x++) {
-                        if (cells[x][y].pw == null)
-                            continue;
-                        if (cells[x][y].movedone)
-                            continue;
-                        if (!cells[x][y].pw.interactive()) {
-                            Cell cell = cells[x][y];
-                            Cell north = getNorth(x, y);
-                            Cell south = getSouth(x, y);
-                            Cell east = getEast(x, y);
-                            Cell west = getWest(x, y);
-                            _move = cell.pw.move(
-                                cell.foodvalue,
-                                north.foodvalue > 0,
-                                east.foodvalue > 0,
-                                south.foodvalue > 0,
-                                west.foodvalue > 0,
-                                getVisibleState(north),
-                                getVisibleState(east),
-                                getVisibleState(south),
-                                getVisibleState(west));
-                            cells[x][y].pw.selfUpdateExternalState();
-                            processMove(x, y, _move);
-                        } else { // Interactive Player
-                        }
-						    /*
-						    SB = new StringBuffer();
-						    SB.append("Player " + cells[x][y].playertype + "
-						    at[" + (x+1) + ", " + (y+1));
-						    SB.append("]: ");
-						    if(_move != null)
-							    SB.append(_move.toString());
-						    println(new String(SB));
-						    */
-                    }
+                organismMoves += population;
+                boolean lookAhead = parallelMoves;
+                for (PlayerEntry entry : OrigPlayers) {
+                    lookAhead |= entry._wrapper.batched();
                 }
+                if (moveRules == MoveRules.SIMULTANEOUS)
+                    moveSimultaneously();
+                else if (lookAhead)
+                    moveInWindows();
+                else
+                    moveInTurn();
 
 
                 for (int i = 0; i < OrigPlayers.length; i++) {
@@ -1276,6 +2610,8 @@ public final class OrganismsGame extends IFCModel implements Constants {
             }
             // else player is already extinct
         }
+        if (stopWatches != null && _state == _CMOVING)
+            checkStopRules();
 
         /*
         // print out the fight results
@@ -1297,43 +2633,103 @@ public final class OrganismsGame extends IFCModel implements Constants {
      * Runs the game until it stops, then notes records end-of-game statistics
      */
     public void runGame() {
+        long start = System.nanoTime();
         while (step()) {}
+        finishGame(System.nanoTime() - start);
+    }
+
+    /**
+     * Records end-of-game statistics once {@link #step} has returned false.
+     * A trial ended by a stop rule is taken to have stayed as it stopped
+     * until its last round, which the averages of the species still alive
+     * are extrapolated to.
+     *
+     * @param nanos The time spent running the game
+     */
+    void finishGame(long nanos) {
+        syncFood();
+        runNanos = nanos;
+        int rounds = stoppedBy == null ? _currRound : maxRounds();
         for (int i = 0; i < this._numplayers; i++) {
             PlayerEntry player = this.OrigPlayers[i];
             if (player._population != 0) {
                 // player is alive at end.
                 // need to divide, otherwise averages are sums
-                this.energyWhileAlive[i] /= this._currRound;
-                this.populationWhileAlive[i] /= this._currRound;
+                long rest = rounds - this._currRound;
+                this.energyWhileAlive[i] += rest * player._totalenergy;
+                this.populationWhileAlive[i] += rest * player._population;
+                this.energyWhileAlive[i] /= rounds;
+                this.populationWhileAlive[i] /= rounds;
             }
             this.endCounts[i] = player._population;
             this.endEnergies[i] = player._totalenergy;
         }
     }
 
-    Cell getNorth(int x, int y) {
-        return this.cells[x][(this.Y + y - 1) % this.Y];
+    /**
+     * @return A hash of the occupants, energy, external states and food of
+     *     the grid, for checking that two games stand in the same state
+     */
+    int gridHash() {
+        int hash = Arrays.hashCode(playerType);
+        int size = X * Y;
+        hash = 31 * hash + Arrays.hashCode(
+            Arrays.copyOfRange(energy, base, base + size));
+        hash = 31 * hash + Arrays.hashCode(externalState);
+        return 31 * hash + Arrays.hashCode(
+            Arrays.copyOfRange(foodValue, base, base + size));
     }
 
-    Cell getSouth(int x, int y) {
-        return this.cells[x][(y + 1) % this.Y];
+    /**
+     * @return The statistics of the finished game, copied out so that the
+     *     game can be {@link #reset}
+     */
+    TrialResult result() {
+        long[] births = new long[_numplayers];
+        long[] reused = new long[_numplayers];
+        long[] lookups = new long[_numplayers];
+        long[] cached = new long[_numplayers];
+        for (int i = 0; i < _numplayers; i++) {
+            PlayerWrapper wrapper = OrigPlayers[i]._wrapper;
+            if (wrapper.recyclable) {
+                births[i] = wrapper.births;
+                reused[i] = wrapper.reused;
+            }
+            if (wrapper.cache != null) {
+                lookups[i] = wrapper.cache.lookups;
+                cached[i] = wrapper.cache.hits;
+            }
+        }
+        return new TrialResult(endCounts.clone(), endEnergies.clone(),
+            extinctionTimes.clone(), energyWhileAlive.clone(),
+            populationWhileAlive.clone(), births, reused, lookups, cached,
+            organismMoves, runNanos,
+            stoppedBy == null ? null : stoppedBy.toString(),
+            stoppedBy == null ? 0 : _currRound);
     }
 
-    Cell getWest(int x, int y) {
-        return this.cells[(this.X + x - 1) % this.X][y];
+    int getNorth(int x, int y) {
+        return cell(x, (this.Y + y - 1) % this.Y);
     }
 
-    Cell getEast(int x, int y) {
-        return this.cells[(x + 1) % this.X][y];
+    int getSouth(int x, int y) {
+        return cell(x, (y + 1) % this.Y);
+    }
+
+    int getWest(int x, int y) {
+        return cell((this.X + x - 1) % this.X, y);
+    }
+
+    int getEast(int x, int y) {
+        return cell((x + 1) % this.X, y);
     }
 
     int getVisibleState(int x, int y) {
-        Cell cell = this.cells[x][y];
-        return getVisibleState(cell);
+        return getVisibleState(cell(x, y));
     }
 
-    int getVisibleState(Cell cell) {
-        return cell.pw == null ? -1 : cell.pw.getExternalState();
+    int getVisibleState(int cell) {
+        return occupied.get(cell) ? externalState[cell] : -1;
     }
 
     void printBoard() {
@@ -1342,7 +2738,9 @@ public final class OrganismsGame extends IFCModel implements Constants {
                 "################################");
         for (int j = 0; j < Y; j++) {
             for (int i = 0; i < X; i++) {
-                System.out.print(cells[i][j].pw + ", ");
+                int cell = cell(i, j);
+                System.out.print((playerType[cell] == EMPTY ? null :
+                    "[" + OrigPlayers[playerType[cell]].name() + "]") + ", ");
             }
             System.out.println();
         }
@@ -1442,10 +2840,11 @@ public final class OrganismsGame extends IFCModel implements Constants {
                             __g.drawString(Integer.toString(y + 1), _CHOFFSET,
                                 _MARGIN + (int) (y * _ratio) + _CVOFFSET);
                         }
-                        if (cells[x][y].pw == null) {
-                            if (cells[x][y].foodvalue > 0)
+                        int cell = cell(x, y);
+                        if (playerType[cell] == EMPTY) {
+                            if (foodValue[base + cell] > 0)
                                 __g.drawString(
-                                    Integer.toString(cells[x][y].foodvalue),
+                                    Integer.toString(foodValue[base + cell]),
                                     _MARGIN + (int) (x * _ratio) + 2 * _CHOFFSET,
                                     _MARGIN + (int) (y * _ratio) + 2 * _CVOFFSET);
                             continue;
@@ -1457,27 +2856,10 @@ public final class OrganismsGame extends IFCModel implements Constants {
                                 (int) _ratio);
                             //}
                             try {
-                                //__g.setColor(OrigPlayers[cells[x][y]
-                                // .playertype].color());
-                                if (cells[x][y].pw != null)
-                                    //					{
-                                    //						Color c =
-                                    //						cells[x][y].pw
-                                    //						.color();
-                                    //						float alpha =
-                                    //						(float)cells[x][y]
-                                    //						.pw._energy * 255
-                                    //						/ M;
-                                    //						Color
-                                    //						relativeColor =
-                                    //						new Color(c.getRed
-                                    //						(), c.getGreen(),
-                                    //						c.getBlue(), (int)
-                                    //						alpha);
-                                    //						__g.setColor
-                                    //						(relativeColor);
-                                    //					}
-                                    __g.setColor(cells[x][y].pw.color());
+                                //__g.setColor(OrigPlayers[playerType[cell]]
+                                // .color());
+                                __g.setColor(OrigPlayers[playerType[cell]]
+                                    ._wrapper.color(organisms[cell]));
                                 __g.fillRect(
                                     _MARGIN + (int) (x * _ratio) + _COUTLINE_THICKNESS,
                                     _MARGIN + (int) (y * _ratio) + _COUTLINE_THICKNESS,
@@ -1485,19 +2867,16 @@ public final class OrganismsGame extends IFCModel implements Constants {
                                     (int) _ratio - _COUTLINE_THICKNESS * 2);
 
                                 __g.setColor(_CBLACK);
-                                if (cells[x][y].pw != null)
-                                    __g.drawString("s" + cells[x][y].pw.getExternalState(),
-                                        _MARGIN + (int) (x * _ratio) + _CHOFFSET,
-                                        _MARGIN + (int) (y * _ratio) + _CVOFFSET);
-                                if (cells[x][y].pw != null)
-                                    __g.drawString("e" + cells[x][y].pw.energy(),
-                                        _MARGIN + (int) (x * _ratio) + _CHOFFSET,
-                                        _MARGIN + (int) (y * _ratio) + 2 * _CVOFFSET);
+                                __g.drawString("s" + externalState[cell],
+                                    _MARGIN + (int) (x * _ratio) + _CHOFFSET,
+                                    _MARGIN + (int) (y * _ratio) + _CVOFFSET);
+                                __g.drawString("e" + energy[base + cell],
+                                    _MARGIN + (int) (x * _ratio) + _CHOFFSET,
+                                    _MARGIN + (int) (y * _ratio) + 2 * _CVOFFSET);
                             } catch (Exception EXC) {
                                 //System.err.println("Exception in 4");
-                                //System.err.println(x + ", " + y + ",pw = "
-                                // + cells[x][y].pw + ", round = " +
-                                // currRound());
+                                //System.err.println(x + ", " + y + ", round = "
+                                // + currRound());
                                 //							printBoard();
                             }
                         }
@@ -2200,7 +3579,7 @@ public final class OrganismsGame extends IFCModel implements Constants {
         }
 
         private Round getLastRound() {
-            return (Round) getGame().roundList.lastElement();
+            return getGame().roundList.lastElement();
         }
 
         private OrganismsGame getGame() {
@@ -2312,7 +3691,7 @@ public final class OrganismsGame extends IFCModel implements Constants {
         }
 
         private Round getLastRound() {
-            return (Round) og.roundList.lastElement();
+            return og.roundList.lastElement();
         }
 
         private String showSummary() {
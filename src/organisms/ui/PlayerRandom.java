@@ -0,0 +1,71 @@
+package organisms.ui;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * An organism's own random source, handed out by
+ * {@link OrganismsGame#random}. It draws exactly as a
+ * {@link java.util.SplittableRandom} on the same seed would, but can also be
+ * copied, so that the copy of an organism in a fork of the game (see
+ * {@link organisms.OrganismsPlayer#copy}) goes on drawing the same numbers
+ * as the original.
+ */
+public final class PlayerRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long seed;
+    private final long gamma;
+
+    PlayerRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private PlayerRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @return A new generator, split off from this one as
+     *     {@link java.util.SplittableRandom#split} would
+     */
+    PlayerRandom split() {
+        return new PlayerRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * @return A generator at the same point of the same stream as this one;
+     *     the two draw the same numbers from here on without affecting each
+     *     other
+     */
+    public PlayerRandom copy() {
+        return new PlayerRandom(seed, gamma);
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    @Override
+    public int nextInt() {
+        long z = nextSeed();
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+    @Override
+    public long nextLong() {
+        long z = nextSeed();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+}
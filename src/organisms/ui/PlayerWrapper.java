@@ -6,42 +6,270 @@
 //* Update:         10.16.2003
 //*
 //* Description:    Compositional wrapper for IFCPlayer
-//*                 objects.
+//*                 objects.  One wrapper is shared by every
+//*                 organism of a species; per-organism state
+//*                 lives in the grid arrays of OrganismsGame,
+//*                 or in the SpeciesController for species
+//*                 that implement one.
 //*
 //***********************************************************
 
 package organisms.ui;
 
+import organisms.Constants.Action;
 import organisms.Move;
 import organisms.OrganismsPlayer;
+import organisms.Packed;
+import organisms.PackedPlayer;
 import organisms.PersistentPlayer;
+import organisms.Recyclable;
+import organisms.SpeciesController;
+import organisms.Stateless;
 
 import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.function.Supplier;
 
 import static organisms.Constants.MAX_EXTERNAL_STATE;
 import static organisms.Constants.MIN_EXTERNAL_STATE;
 
 public final class PlayerWrapper implements Serializable {
 
-    int energy;
-    int externalState;
-    double score;
-    OrganismsPlayer player;
-    Class playerClass;
+    // The no-argument constructor of each player class, resolved once
+    private static final ClassValue<Supplier<OrganismsPlayer>> FACTORIES =
+        new ClassValue<Supplier<OrganismsPlayer>>() {
+            @Override
+            protected Supplier<OrganismsPlayer> computeValue(Class<?> type) {
+                return factory(type, OrganismsPlayer.class);
+            }
+        };
+
+    // The same for each species controller class
+    private static final ClassValue<Supplier<SpeciesController>> CONTROLLERS =
+        new ClassValue<Supplier<SpeciesController>>() {
+            @Override
+            protected Supplier<SpeciesController> computeValue(
+                Class<?> type) {
+                return factory(type, SpeciesController.class);
+            }
+        };
+
+    // The bytecode of SpeciesDecider, copied for every player class; null
+    // if it could not be read
+    private static final byte[] DECIDER_TEMPLATE = deciderTemplate();
+
+    // Each player class's own copy of SpeciesDecider, defined once
+    private static final ClassValue<Decider> DECIDERS =
+        new ClassValue<Decider>() {
+            @Override
+            protected Decider computeValue(Class<?> type) {
+                return decider();
+            }
+        };
+
+    // Calls every species through one site, when copies are turned off or
+    // cannot be defined
+    private static final Decider SHARED_DECIDER = new SpeciesDecider();
+
+    Class<?> playerClass;
     OrganismsGame game;
+    transient Supplier<OrganismsPlayer> factory;    // Creates new organisms
+    transient Decider decider;    // Asks the species' organisms to move
+    DecisionCache cache;    // Decisions of a Stateless species, or null
+    SpeciesController controller;    // The species' controller, or null
+    int[] freeSlots = new int[16];    // Slots of dead organisms, for reuse
+    int freeCount;
+    int slotCount;    // Slots handed out so far
+    boolean recyclable;    // Whether dead organisms are kept for reuse
+    OrganismsPlayer[] pool = new OrganismsPlayer[16];    // Dead organisms
+    int pooled;
+    long births;    // Organisms created, new or reused
+    long reused;    // Births served from the pool
 
-    PlayerWrapper(Class __class) {
+    PlayerWrapper(Class<?> __class, OrganismsGame __amoeba) {
         playerClass = __class;
-        this.energy = 0;
+        game = __amoeba;
+        recyclable = Recyclable.class.isAssignableFrom(__class);
+        if (OrganismsPlayer.class.isAssignableFrom(__class)) {
+            factory = FACTORIES.get(__class);
+        }
+        decider = __amoeba.speciesDeciders() ? DECIDERS.get(__class) :
+            SHARED_DECIDER;
+        if (__amoeba.decisionCache() &&
+            __class.isAnnotationPresent(Stateless.class)) {
+            cache = new DecisionCache();
+        }
+        if (SpeciesController.class.isAssignableFrom(__class)) {
+            try {
+                controller = CONTROLLERS.get(__class).get();
+                controller.register(game);
+            } catch (Exception EXC) {
+                System.out.println(EXC.getMessage());
+                EXC.printStackTrace();
+                System.out.println(
+                    "Player " + playerClass + " threw an Exception in " +
+                        "register()");
+            }
+        }
+    }
+
+    /**
+     * Copies the wrapper of a species into a fork of its game, with the
+     * controller copied and the same slots in use. Dead organisms kept for
+     * reuse stay with the original.
+     */
+    private PlayerWrapper(PlayerWrapper from, OrganismsGame __game,
+                          SpeciesController __controller) {
+        playerClass = from.playerClass;
+        game = __game;
+        factory = from.factory;
+        decider = from.decider;
+        cache = from.cache == null ? null : new DecisionCache(from.cache);
+        controller = __controller;
+        freeSlots = from.freeSlots.clone();
+        freeCount = from.freeCount;
+        slotCount = from.slotCount;
+        recyclable = from.recyclable;
+        births = from.births;
+        reused = from.reused;
+    }
+
+    /**
+     * @return Whether the species overrides the copy hook that forking its
+     *     game needs: {@link SpeciesController#copy} for a batched species,
+     *     {@link OrganismsPlayer#copy} otherwise
+     */
+    boolean forkable() {
+        Class<?> owner = controller != null ? SpeciesController.class :
+            OrganismsPlayer.class;
+        try {
+            return playerClass.getMethod("copy", OrganismsGame.class)
+                .getDeclaringClass() != owner;
+        } catch (NoSuchMethodException EXC) {
+            return false;
+        }
+    }
+
+    /**
+     * @return This species' wrapper for a fork of the game
+     * @throws UnsupportedOperationException if the controller cannot be
+     *     copied
+     */
+    PlayerWrapper fork(OrganismsGame __game) {
+        SpeciesController copy = null;
+        if (controller != null) {
+            try {
+                copy = controller.copy(__game);
+            } catch (Exception EXC) {
+                throw new UnsupportedOperationException(
+                    "Player " + playerClass + " threw an Exception in copy()",
+                    EXC);
+            }
+        }
+        return new PlayerWrapper(this, __game, copy);
+    }
+
+    /**
+     * Copies an organism into this wrapper's game, which is a fork
+     *
+     * @return The copy, or null if the player threw
+     */
+    OrganismsPlayer copy(OrganismsPlayer player) {
+        try {
+            return player.copy(game);
+        } catch (Exception EXC) {
+            System.out.println(EXC.getMessage());
+            EXC.printStackTrace();
+            System.out.println(
+                "Player " + playerClass + " threw an Exception in copy()");
+            return null;
+        }
+    }
+
+    /**
+     * @return Whether the species decides in batches through a
+     *     {@link SpeciesController} rather than one organism at a time
+     */
+    public boolean batched() {
+        return controller != null;
+    }
+
+    /**
+     * @return A slot for a new organism, reusing those of dead ones first
+     */
+    int allocateSlot() {
+        return freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+    }
+
+    void freeSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, 2 * freeCount);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Tells the controller about a newborn organism
+     *
+     * @return The newborn's external state, or 0 if the controller reported
+     *     an out-of-range value or threw
+     */
+    public int born(int slot, int parent, int key) {
+        try {
+            int x = controller.born(slot, parent, key);
+            if ((x >= MIN_EXTERNAL_STATE) & (x <= MAX_EXTERNAL_STATE))
+                return x;
+        } catch (Exception EXC) {
+            System.out.println(EXC.getMessage());
+            EXC.printStackTrace();
+            System.out.println(
+                "Player " + playerClass + " threw an Exception in born()");
+        }
+        return 0;
+    }
+
+    public void died(int slot) {
+        try {
+            controller.died(slot);
+        } catch (Exception EXC) {
+            System.out.println(EXC.getMessage());
+            EXC.printStackTrace();
+            System.out.println(
+                "Player " + playerClass + " threw an Exception in died()");
+        }
+    }
+
+    /**
+     * Asks the controller for the decisions of a batch of its organisms
+     *
+     * @return Whether the controller answered; if it threw, every organism
+     *     in the batch stays put and keeps its external state
+     */
+    boolean decide(int count, int[] slots, long[] observations,
+                   long[] decisions, int[] states) {
+        try {
+            controller.decide(count, slots, observations, decisions, states);
+            return true;
+        } catch (Exception EXC) {
+            System.out.println(EXC.getMessage());
+            EXC.printStackTrace();
+            System.out.println(
+                "Player " + playerClass + " threw an Exception in decide()");
+            return false;
+        }
     }
 
-    private void register_priv(OrganismsGame __amoeba, int key) {
+    private void register_priv(OrganismsPlayer player, int key) {
         try {
-            game = __amoeba;
             player.register(game, key);
-            externalState = 0;
-            selfUpdateExternalState();
         } catch (Exception EXC) {
             System.out.println(EXC.getMessage());
             EXC.printStackTrace();
@@ -50,18 +278,121 @@ public final class PlayerWrapper implements Serializable {
         }
     }
 
-    public void register(OrganismsGame __amoeba, int key) {
+    private boolean reset_priv(OrganismsPlayer player) {
         try {
-            player = (OrganismsPlayer) playerClass.newInstance();
-            register_priv(__amoeba, key);
-        } catch (InstantiationException | IllegalAccessException e) {
+            ((Recyclable) player).reset();
+            return true;
+        } catch (Exception EXC) {
+            System.out.println(EXC.getMessage());
+            EXC.printStackTrace();
+            System.out.println(
+                "Player " + playerClass + " threw an Exception in reset()");
+            return false;
+        }
+    }
+
+    /**
+     * Keeps a dead organism for reuse, if its species allows it
+     */
+    void recycle(OrganismsPlayer player) {
+        if (!recyclable || player == null)
+            return;
+        if (pooled == pool.length)
+            pool = Arrays.copyOf(pool, 2 * pooled);
+        pool[pooled++] = player;
+    }
+
+    /**
+     * Instantiates and registers a new organism of this species, reusing a
+     * dead one when the species is {@link Recyclable}
+     *
+     * @param key The integer passed from the parent, or -1 for the founder
+     * @return The new organism, or null if it could not be instantiated
+     */
+    public OrganismsPlayer newPlayer(int key) {
+        try {
+            births++;
+            OrganismsPlayer player = null;
+            if (pooled > 0) {
+                player = pool[--pooled];
+                pool[pooled] = null;
+                if (reset_priv(player))
+                    reused++;
+                else
+                    player = null;
+            }
+            if (player == null)
+                player = factory.get();
+            register_priv(player, key);
+            return player;
+        } catch (Exception e) {
             e.printStackTrace();
+            return null;
         }
     }
 
-    public String name() {
+    /**
+     * Binds a player or controller class's no-argument constructor to a
+     * {@link Supplier}, so that a birth is a plain constructor call.
+     * Constructors that this package cannot link against directly are called
+     * reflectively instead.
+     *
+     * @param as The type that {@code type} implements
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> factory(Class<?> type, Class<T> as) {
         try {
-            return player.name();
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle constructor = lookup.findConstructor(type,
+                MethodType.methodType(void.class));
+            return (Supplier<T>) LambdaMetafactory.metafactory(
+                lookup, "get", MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class), constructor,
+                MethodType.methodType(type)).getTarget().invoke();
+        } catch (Throwable linkFailure) {
+            return () -> {
+                try {
+                    Constructor<?> constructor = type.getDeclaredConstructor();
+                    constructor.setAccessible(true);
+                    return as.cast(constructor.newInstance());
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(
+                        "Cannot instantiate " + type.getName(), e);
+                }
+            };
+        }
+    }
+
+    /**
+     * Defines a hidden copy of {@link SpeciesDecider}, whose calls to the
+     * player the JIT profiles apart from every other species'
+     */
+    private static Decider decider() {
+        if (DECIDER_TEMPLATE == null) {
+            return SHARED_DECIDER;
+        }
+        try {
+            MethodHandles.Lookup copy = MethodHandles.lookup()
+                .defineHiddenClass(DECIDER_TEMPLATE, true);
+            return (Decider) copy.findConstructor(copy.lookupClass(),
+                MethodType.methodType(void.class)).invoke();
+        } catch (Throwable linkFailure) {
+            return SHARED_DECIDER;
+        }
+    }
+
+    private static byte[] deciderTemplate() {
+        try (InputStream in = SpeciesDecider.class.getResourceAsStream(
+            "SpeciesDecider.class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public String name(OrganismsPlayer player) {
+        try {
+            return controller != null ? controller.name() : player.name();
         } catch (Exception EXC) {
             System.out.println(EXC.getMessage());
             EXC.printStackTrace();
@@ -71,11 +402,17 @@ public final class PlayerWrapper implements Serializable {
         }
     }
 
-    public void selfUpdateExternalState() {
+    /**
+     * @param player The organism being queried
+     * @param current The organism's current external state
+     * @return The organism's new external state, or {@code current} if the
+     *     player reported an out-of-range value or threw
+     */
+    public int externalState(OrganismsPlayer player, int current) {
         try {
             int x = player.externalState();
             if ((x >= MIN_EXTERNAL_STATE) & (x <= MAX_EXTERNAL_STATE))
-                externalState = x;
+                return x;
         } catch (Exception EXC) {
             System.out.println(EXC.getMessage());
             EXC.printStackTrace();
@@ -83,10 +420,13 @@ public final class PlayerWrapper implements Serializable {
                 "Player " + playerClass + " threw an Exception in " +
                     "externalState()");
         }
+        return current;
     }
 
-    public Color color() {
-        if (player != null)
+    public Color color(OrganismsPlayer player) {
+        if (controller != null)
+            return controller.color();
+        else if (player != null)
             return player.color();
         else
             return new Color(1.0f, 1.0f, 0.9f);
@@ -97,7 +437,7 @@ public final class PlayerWrapper implements Serializable {
         return playerClass;
     }
 
-    public void gameOver() {
+    public void gameOver(OrganismsPlayer player) {
         try {
             if (player instanceof PersistentPlayer) {
                 ((PersistentPlayer) player).gameOver();
@@ -110,22 +450,64 @@ public final class PlayerWrapper implements Serializable {
         }
     }
 
-    public Move move(int foodHere, boolean foodN, boolean foodE,
-                     boolean foodS, boolean foodW, int neighborN, int neighborE,
-                     int neighborS, int neighborW) {
+    /**
+     * Asks an organism for its decision, through the species' decider.
+     * Players that implement {@link PackedPlayer} are called directly;
+     * others go through {@link OrganismsPlayer#move} and have their
+     * {@link Move} packed.
+     *
+     * @param player The organism deciding
+     * @param observation What the organism sees, as packed by
+     *     {@link Packed#observation}
+     * @return The organism's decision, or {@link Packed#STAY_PUT} if the
+     *     player threw
+     */
+    public long decide(OrganismsPlayer player, long observation) {
         try {
-            return this.player.move(foodHere, this.energy, foodN, foodE, foodS,
-                foodW, neighborN, neighborE, neighborS, neighborW);
+            return decider.decide(player, observation);
         } catch (Exception e) {
             System.out.println(e.getMessage());
             e.printStackTrace();
-            return null;
+            return Packed.STAY_PUT;
+        }
+    }
+
+    /**
+     * Asks an organism for its decision like {@link #decide}, answering
+     * from the species' {@link DecisionCache} when it is
+     * {@link Stateless} and has decided the same observation before. Only
+     * the game's own thread may call this.
+     */
+    long decideCached(OrganismsPlayer player, long observation) {
+        if (cache == null || !cache.enabled)
+            return decide(player, observation);
+        long cached = cache.get(observation);
+        if (cached != DecisionCache.MISS && !cache.check()) {
+            cache.hits++;
+            return cached;
+        }
+        long decision;
+        try {
+            decision = decider.decide(player, observation);
+        } catch (Exception e) {
+            System.out.println(e.getMessage());
+            e.printStackTrace();
+            return Packed.STAY_PUT;    // Not an answer to cache
+        }
+        if (cached != DecisionCache.MISS && decision != cached) {
+            cache.enabled = false;
+            System.out.println("Player " + playerClass + " is @Stateless " +
+                "but decided differently on the same observation; no " +
+                "longer caching its decisions");
+        } else if (Packed.action(decision) != Action.REPRODUCE) {
+            cache.put(observation, decision);
         }
+        return decision;
     }
 
-    public boolean interactive() {
+    public boolean interactive(OrganismsPlayer player) {
         try {
-            return player.interactive();
+            return controller == null && player.interactive();
         } catch (Exception EXC) {
             System.out.println(EXC.getMessage());
             EXC.printStackTrace();
@@ -136,31 +518,7 @@ public final class PlayerWrapper implements Serializable {
         }
     }
 
-    public double score() {
-        return this.score;
-    }
-
-    public int energy() {
-        return this.energy;
-    }
-
-    public int getExternalState() {
-        return externalState;
-    }
-
-    public void setScore(double __score) {
-        this.score = __score;
-    }
-
-    public void setEnergy(int __energy) {
-        this.energy = __energy;
-    }
-
-    public OrganismsPlayer player() {
-        return this.player;
-    }
-
     public String toString() {
-        return "[" + this.player.name() + "]";
+        return "[" + playerClass.getName() + "]";
     }
 }
@@ -0,0 +1,38 @@
+package organisms.ui;
+
+import organisms.OrganismsPlayer;
+import organisms.Packed;
+import organisms.PackedPlayer;
+
+/**
+ * Calls a player's {@link PackedPlayer#decide} or {@link OrganismsPlayer#move},
+ * unpacking the observation and packing the decision. With every species
+ * behind one call site, that site would be megamorphic, and the JIT could
+ * inline no strategy, nor elide the {@link organisms.Move} each one
+ * allocates.
+ * <p>
+ * This class is therefore a template: {@link PlayerWrapper} defines a hidden
+ * copy of its bytecode for every player class. The copies share their code
+ * but not the JIT's profile of it, so the calls in each copy see a single
+ * receiver class, and the strategy inlines into them. The call into the
+ * decider is still megamorphic, but it is one plain interface call per
+ * decision. Keep the class free of static state, which every copy would
+ * initialize anew.
+ */
+final class SpeciesDecider implements Decider {
+
+    @Override
+    public long decide(OrganismsPlayer player, long observation)
+        throws Exception {
+        if (player instanceof PackedPlayer) {
+            return ((PackedPlayer) player).decide(observation);
+        }
+        return Packed.decision(player.move(
+            Packed.foodHere(observation),
+            Packed.energyLeft(observation),
+            Packed.foodN(observation), Packed.foodE(observation),
+            Packed.foodS(observation), Packed.foodW(observation),
+            Packed.neighborN(observation), Packed.neighborE(observation),
+            Packed.neighborS(observation), Packed.neighborW(observation)));
+    }
+}
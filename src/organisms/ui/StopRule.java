@@ -0,0 +1,219 @@
+package organisms.ui;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Ends a trial before its last round once the outcome is settled. Rules are
+ * given in tournament rows as {@code stop=} options, any number of them, and
+ * the first to fire ends the trial:
+ * <ul>
+ * <li>{@code sole:N} fires once a single species of several has been the
+ * only one alive for N rounds;</li>
+ * <li>{@code steady:W:T} fires once, over the last W rounds, the population
+ * and the energy of every living species have each varied by no more than a
+ * fraction T of their mean (their standard deviation over their mean);</li>
+ * <li>rules joined by {@code +}, such as {@code sole:200+steady:300:0.02}
+ * for a single stable survivor, fire once all of them would.</li>
+ * </ul>
+ * A rule is only a description; a {@link Watch} follows one trial for it,
+ * in constant time per round.
+ */
+abstract class StopRule {
+    private final String spec;
+
+    private StopRule(String spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * @param spec A rule as written in a tournament row, in any case
+     * @return The rule
+     * @throws RuntimeException if there is no such rule
+     */
+    static StopRule parse(String spec) {
+        if (spec.contains("+")) {
+            String[] specs = spec.split("\\+");
+            StopRule[] rules = new StopRule[specs.length];
+            for (int i = 0; i < specs.length; i++) {
+                rules[i] = parse(specs[i]);
+            }
+            return new All(spec.trim(), rules);
+        }
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            if (parts[0].equals("sole") && parts.length == 2) {
+                int rounds = Integer.parseInt(parts[1]);
+                if (rounds > 0)
+                    return new Sole(spec.trim(), rounds);
+            } else if (parts[0].equals("steady") && parts.length == 3) {
+                int window = Integer.parseInt(parts[1]);
+                double tolerance = Double.parseDouble(parts[2]);
+                if (window > 1 && tolerance >= 0.0)
+                    return new Steady(spec.trim(), window, tolerance);
+            }
+        } catch (NumberFormatException EXC) {
+            // Reported below
+        }
+        throw new RuntimeException("Unknown stop rule, " + spec);
+    }
+
+    /**
+     * @return A watch over a new trial of {@code species} species
+     */
+    abstract Watch watch(int species);
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    /**
+     * Follows one trial for a rule
+     */
+    abstract static class Watch {
+        /**
+         * Takes in the end of a round
+         *
+         * @param population Each species' population, 0 once extinct
+         * @param energy Each species' total energy
+         * @return Whether the trial can stop now
+         */
+        abstract boolean settled(int[] population, int[] energy);
+    }
+
+    private static final class All extends StopRule {
+        final StopRule[] rules;
+
+        All(String spec, StopRule[] rules) {
+            super(spec);
+            this.rules = rules;
+        }
+
+        @Override
+        Watch watch(int species) {
+            Watch[] watches = new Watch[rules.length];
+            for (int i = 0; i < rules.length; i++) {
+                watches[i] = rules[i].watch(species);
+            }
+            return new Watch() {
+                @Override
+                boolean settled(int[] population, int[] energy) {
+                    // Every part sees every round
+                    boolean settled = true;
+                    for (Watch watch : watches) {
+                        settled &= watch.settled(population, energy);
+                    }
+                    return settled;
+                }
+            };
+        }
+    }
+
+    private static final class Sole extends StopRule {
+        final int rounds;
+
+        Sole(String spec, int rounds) {
+            super(spec);
+            this.rounds = rounds;
+        }
+
+        @Override
+        Watch watch(int species) {
+            return new Watch() {
+                int alone;    // Rounds that one species has been alone
+
+                @Override
+                boolean settled(int[] population, int[] energy) {
+                    int alive = 0;
+                    for (int count : population) {
+                        if (count > 0)
+                            alive++;
+                    }
+                    alone = alive == 1 && species > 1 ? alone + 1 : 0;
+                    return alone >= rounds;
+                }
+            };
+        }
+    }
+
+    private static final class Steady extends StopRule {
+        final int window;
+        final double tolerance;
+
+        Steady(String spec, int window, double tolerance) {
+            super(spec);
+            this.window = window;
+            this.tolerance = tolerance;
+        }
+
+        @Override
+        Watch watch(int species) {
+            return new Watch() {
+                // The last rounds of each series, species by species: the
+                // populations first, then the energies
+                final Series[] series = new Series[2 * species];
+                int rounds;
+
+                {
+                    for (int i = 0; i < series.length; i++)
+                        series[i] = new Series(window);
+                }
+
+                @Override
+                boolean settled(int[] population, int[] energy) {
+                    rounds++;
+                    boolean steady = rounds >= window;
+                    for (int i = 0; i < species; i++) {
+                        series[i].add(population[i]);
+                        series[species + i].add(energy[i]);
+                        if (population[i] > 0) {
+                            steady &= series[i].steady(tolerance) &&
+                                series[species + i].steady(tolerance);
+                        }
+                    }
+                    return steady;
+                }
+            };
+        }
+    }
+
+    /**
+     * The last values of a series, with their sum and sum of squares
+     */
+    private static final class Series {
+        final double[] values;
+        int next;
+        double sum;
+        double squares;
+
+        Series(int window) {
+            values = new double[window];
+        }
+
+        void add(double value) {
+            double old = values[next];
+            values[next] = value;
+            sum += value - old;
+            squares += value * value - old * old;
+            if (++next == values.length) {
+                next = 0;
+                // Start the sums afresh once per window, before rounding
+                // errors can add up
+                sum = Arrays.stream(values).sum();
+                squares = Arrays.stream(values).map(v -> v * v).sum();
+            }
+        }
+
+        /**
+         * @return Whether the standard deviation of the window is at most
+         *     {@code tolerance} times its mean
+         */
+        boolean steady(double tolerance) {
+            double mean = sum / values.length;
+            double variance = Math.max(0.0,
+                squares / values.length - mean * mean);
+            return variance <= tolerance * tolerance * mean * mean;
+        }
+    }
+}
@@ -5,9 +5,9 @@ import java.io.OutputStream;
 import java.io.PrintStream;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class TournamentRunner {
 	public static void main(String[] __args) {
@@ -51,16 +51,19 @@ public class TournamentRunner {
 				" configurations", consoleOut, emptyStream);
 
 			TournamentResultLogger.setUp("all-players-400.txt");
-			List<String> outputs = new ArrayList<>(configurations.length);
 
-			Arrays.stream(configurations).parallel().forEach(c -> {
-				String configName = c[c.length - 1];
-				outputs.add(
-					OrganismsGame.runTournament(c, playerClasses));
-				printOneOff("Finished configuration " + configName +
-						" (" + secondsRound3(start) + " sec)",
-					consoleOut, emptyStream);
-			});
+			// Results keep the order of the configurations
+			List<String> outputs = Arrays.stream(configurations).parallel()
+				.map(c -> {
+					String configName = c[12];
+					String output =
+						OrganismsGame.runTournament(c, playerClasses);
+					printOneOff("Finished configuration " + configName +
+							" (" + secondsRound3(start) + " sec)",
+						consoleOut, emptyStream);
+					return output;
+				})
+				.collect(Collectors.toList());
 
 			TournamentResultLogger.print(String.join("\n", outputs));
 
@@ -0,0 +1,105 @@
+package organisms.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Runs several trials of the same configuration in lockstep on one thread,
+ * a round of every trial before the next round of any. The trials' food and
+ * energy live in shared trial-major columns, one grid after another, so the
+ * food phase of a round sweeps through memory in order from the first trial
+ * to the last. The trials also share their scratch space, and keep no
+ * history of rounds, which keeps small grids cache-resident.
+ * <p>
+ * Every trial still draws from its own seed and keeps its own results, so
+ * how trials are batched does not change them. Only the food and energy are
+ * columns, though: the organisms of all trials in a batch are still separate
+ * objects, and a large batch can spill them out of cache. A batch of one
+ * trial is the default for that reason.
+ * <p>
+ * A batch outlives its trials: once they finish, their games are
+ * {@link OrganismsGame#reset} in place for the next ones, so a tournament
+ * allocates grids for as many batches as run at once, not for every trial.
+ */
+final class TrialBatch {
+    // Cells of all trials of a batch together
+    private static final int MAX_COLUMN = 1 << 26;
+
+    private final IFCConfiguration config;
+    private final List<OrganismsGame> games = new ArrayList<>();
+    private final int[] food;
+    private final int[] energy;
+
+    private TrialBatch(IFCConfiguration config, int size) {
+        this.config = config;
+        int cells = config.getGridX() * config.getGridY();
+        this.food = new int[size * cells];
+        this.energy = new int[size * cells];
+    }
+
+    /**
+     * Plays a trial of the configuration for every seed, in batches of
+     * consecutive trials run on as many threads as are free. Each thread
+     * reuses an idle batch when there is one.
+     *
+     * @return The results of the trials, in the order of their seeds
+     */
+    static List<TrialResult> runAll(IFCConfiguration config, long[] seeds) {
+        int cells = config.getGridX() * config.getGridY();
+        int size = Math.max(1, Math.min(config.lockstepTrials(),
+            MAX_COLUMN / cells));
+        TrialResult[] results = new TrialResult[seeds.length];
+        Queue<TrialBatch> idle = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, (seeds.length + size - 1) / size).parallel()
+            .forEach(b -> {
+                TrialBatch batch = idle.poll();
+                if (batch == null) {
+                    batch = new TrialBatch(config, size);
+                }
+                int from = b * size;
+                batch.run(seeds, from, Math.min(seeds.length, from + size),
+                    results);
+                idle.offer(batch);
+            });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Plays the trials of seeds {@code from} to {@code to - 1} to their end,
+     * then records their results
+     */
+    private void run(long[] seeds, int from, int to, TrialResult[] results) {
+        int count = to - from;
+        for (int t = 0; t < count; t++) {
+            if (t < games.size()) {
+                games.get(t).reset(seeds[from + t]);
+                continue;
+            }
+            OrganismsGame game = new OrganismsGame(config, seeds[from + t]);
+            game.joinBatch(food, energy, t * game.cellCount(),
+                games.isEmpty() ? game : games.get(0));
+            games.add(game);
+        }
+
+        long start = System.nanoTime();
+        boolean[] finished = new boolean[count];
+        int running = count;
+        while (running > 0) {
+            for (int t = 0; t < count; t++) {
+                if (!finished[t] && !games.get(t).step()) {
+                    finished[t] = true;
+                    running--;
+                }
+            }
+        }
+        long nanos = (System.nanoTime() - start) / count;
+        for (int t = 0; t < count; t++) {
+            games.get(t).finishGame(nanos);
+            results[from + t] = games.get(t).result();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package organisms.ui;
+
+/**
+ * What one finished trial adds to its configuration's report, kept apart
+ * from the game so that the game can be reset for the next trial. Arrays
+ * are indexed by species. The averages while alive of a trial ended by a
+ * stop rule are extrapolated to its last round.
+ */
+final class TrialResult {
+    final int[] endCounts;
+    final int[] endEnergies;
+    final int[] extinctionTimes;    // 0 for species alive at the end
+    final long[] energyWhileAlive;    // Averages over the rounds alive
+    final long[] populationWhileAlive;
+    final long[] births;    // Of Recyclable species, else 0
+    final long[] reused;
+    final long[] decisionLookups;    // Of Stateless species, else 0
+    final long[] cachedDecisions;
+    final long organismMoves;
+    final long runNanos;
+    final String stopRule;    // The rule that ended the trial early, or null
+    final int stopRound;    // The round it fired at, or 0
+
+    TrialResult(int[] endCounts, int[] endEnergies, int[] extinctionTimes,
+                long[] energyWhileAlive, long[] populationWhileAlive,
+                long[] births, long[] reused, long[] decisionLookups,
+                long[] cachedDecisions, long organismMoves, long runNanos,
+                String stopRule, int stopRound) {
+        this.endCounts = endCounts;
+        this.endEnergies = endEnergies;
+        this.extinctionTimes = extinctionTimes;
+        this.energyWhileAlive = energyWhileAlive;
+        this.populationWhileAlive = populationWhileAlive;
+        this.births = births;
+        this.reused = reused;
+        this.decisionLookups = decisionLookups;
+        this.cachedDecisions = cachedDecisions;
+        this.organismMoves = organismMoves;
+        this.runNanos = runNanos;
+        this.stopRule = stopRule;
+        this.stopRound = stopRound;
+    }
+}